@@ -4,4 +4,8 @@ public class CsvBuilderFactory {
 	public static ICsvBuilder createBuilder() {
 		return new OpenCsvBuilder();
 	}
+
+	public static LenientCsvBuilder createLenientBuilder(IPLCsvLoadPolicy policy) {
+		return new LenientCsvBuilder(policy, "PLAYER");
+	}
 }
\ No newline at end of file
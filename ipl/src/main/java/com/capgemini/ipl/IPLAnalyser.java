@@ -4,15 +4,15 @@ import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.google.gson.Gson;
 
 public class IPLAnalyser {
+	private volatile IPLSimilarPlayerIndex similarPlayerIndex;
+	private final IPLSeasonHistory seasonHistory = new IPLSeasonHistory();
 
 	public int loadBatsmenData(String csvFilePath) throws IPLAnalyserException {
 		if (!(csvFilePath.matches(".*\\.csv$")))
@@ -65,20 +65,117 @@ public class IPLAnalyser {
 		}
 	}
 
+	public <E> IPLCsvLoadResult<E> loadDataLeniently(String csvFilePath, Class<E> csvClass, IPLCsvLoadPolicy policy)
+			throws IPLAnalyserException {
+		if (!(csvFilePath.matches(".*\\.csv$")))
+			throw new IPLAnalyserException("Incorrect Type", IPLAnalyserExceptionType.INCORRECT_TYPE);
+		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
+			LenientCsvBuilder csvBuilder = CsvBuilderFactory.createLenientBuilder(policy);
+			return csvBuilder.getLoadResultFromCsv(reader, csvClass);
+		} catch (IOException e) {
+			throw new IPLAnalyserException("Incorrect CSV File", IPLAnalyserExceptionType.CENSUS_FILE_PROBLEM);
+		}
+	}
+
+	public IPLTableLoadResult<CSVIPLBatsmenRecords, IPLBatsmenColumn> loadBatsmenTable(String csvFilePath,
+			IPLCsvLoadPolicy policy, boolean offHeap) throws IPLAnalyserException {
+		IPLPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn> table;
+		if (offHeap)
+			table = new IPLOffHeapPlayerTable<>(IPLBatsmenColumn.class, CSVIPLBatsmenRecords::new);
+		else
+			table = new IPLHeapPlayerTable<>();
+		List<IPLCsvError> errors = loadTable(csvFilePath, CSVIPLBatsmenRecords.class, policy, table);
+		return new IPLTableLoadResult<>(table, errors);
+	}
+
+	public IPLTableLoadResult<CSVIPLBowlersRecords, IPLBowlersColumn> loadBowlersTable(String csvFilePath,
+			IPLCsvLoadPolicy policy, boolean offHeap) throws IPLAnalyserException {
+		IPLPlayerTable<CSVIPLBowlersRecords, IPLBowlersColumn> table;
+		if (offHeap)
+			table = new IPLOffHeapPlayerTable<>(IPLBowlersColumn.class, CSVIPLBowlersRecords::new);
+		else
+			table = new IPLHeapPlayerTable<>();
+		List<IPLCsvError> errors = loadTable(csvFilePath, CSVIPLBowlersRecords.class, policy, table);
+		return new IPLTableLoadResult<>(table, errors);
+	}
+
+	private <E, C extends Enum<C> & IPLTableColumn<E>> List<IPLCsvError> loadTable(String csvFilePath, Class<E> csvClass,
+			IPLCsvLoadPolicy policy, IPLPlayerTable<E, C> table) throws IPLAnalyserException {
+		if (!(csvFilePath.matches(".*\\.csv$"))) {
+			table.close();
+			throw new IPLAnalyserException("Incorrect Type", IPLAnalyserExceptionType.INCORRECT_TYPE);
+		}
+		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
+			List<IPLCsvError> errors = CsvBuilderFactory.createLenientBuilder(policy).readCsv(reader, csvClass,
+					table::append);
+			table.finishLoading();
+			return errors;
+		} catch (IOException e) {
+			table.close();
+			throw new IPLAnalyserException("Incorrect CSV File", IPLAnalyserExceptionType.CENSUS_FILE_PROBLEM);
+		} catch (IPLAnalyserException | RuntimeException e) {
+			table.close();
+			throw e;
+		}
+	}
+
 	public List<IPLAllRounder> loadStats(String batsmanFilePath, String bowlerFilePath) throws IPLAnalyserException{
 		List<CSVIPLBatsmenRecords> iplBatsmanList=loadData(batsmanFilePath,CSVIPLBatsmenRecords.class);
 		List<CSVIPLBowlersRecords> iplBowlerList= loadData(bowlerFilePath,CSVIPLBowlersRecords.class); 
-		List<IPLAllRounder> iplAllRounderList= new ArrayList<IPLAllRounder>();
-		iplBatsmanList.stream().forEach(batsman->{
-			CSVIPLBowlersRecords bowlers = iplBowlerList.stream()
-					.filter(bowler-> bowler.player.equalsIgnoreCase(batsman.player)).findFirst()
-					.orElse(null);
-			if (bowlers!=null) {
-				iplAllRounderList.add(new IPLAllRounder(batsman.player,batsman.average,
-						bowlers.average, batsman.runs,bowlers.wickets));
-			}
-		});
-		return iplAllRounderList;
+		return getAllRounders(iplBatsmanList, iplBowlerList);
+	}
+
+	public List<IPLAllRounder> getAllRounders(List<CSVIPLBatsmenRecords> iplBatsmanList,
+			List<CSVIPLBowlersRecords> iplBowlerList) {
+		return IPLTableQueries.joinAllRounders(new IPLHeapPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn>(iplBatsmanList),
+				new IPLHeapPlayerTable<CSVIPLBowlersRecords, IPLBowlersColumn>(iplBowlerList));
+	}
+
+	// stable, like sortBatsmenList and sortBowlersList, so ties keep file order
+	public <T, C extends Enum<C> & IPLTableColumn<T>> List<T> rankRecords(List<T> playersList, C column,
+			boolean descending) {
+		IPLPlayerTable<T, C> table = new IPLHeapPlayerTable<T, C>(playersList);
+		return IPLTableQueries.getRecords(table, IPLTableQueries.rank(table, column, descending, table.size()));
+	}
+
+	public IPLDatasetLoadResult loadSimilarPlayerIndex(String batsmanFilePath, String bowlerFilePath)
+			throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> batsmen = loadDataLeniently(batsmanFilePath,
+				CSVIPLBatsmenRecords.class, IPLCsvLoadPolicy.DEFAULT_CELL);
+		IPLCsvLoadResult<CSVIPLBowlersRecords> bowlers = loadDataLeniently(bowlerFilePath,
+				CSVIPLBowlersRecords.class, IPLCsvLoadPolicy.DEFAULT_CELL);
+		int playerCount = rebuildSimilarPlayerIndex(batsmen.getRecords(), bowlers.getRecords());
+		return new IPLDatasetLoadResult(playerCount, batsmen.getErrors(), bowlers.getErrors());
+	}
+
+	// replaces the index wholesale; only explicit index loads and server reloads
+	// call this, so loading a past season leaves the current index alone
+	public int rebuildSimilarPlayerIndex(List<CSVIPLBatsmenRecords> iplBatsmanList,
+			List<CSVIPLBowlersRecords> iplBowlerList) {
+		IPLSimilarPlayerIndex index = new IPLSimilarPlayerIndex(iplBatsmanList, iplBowlerList);
+		this.similarPlayerIndex = index;
+		return index.size();
+	}
+
+	public List<String> getSimilarPlayers(String player, int k, double[] weights) throws IPLAnalyserException {
+		IPLSimilarPlayerIndex index = similarPlayerIndex;
+		if (index == null)
+			throw new IPLAnalyserException("Similar Player Index Not Loaded", IPLAnalyserExceptionType.SOME_OTHER_ERRORS);
+		return index.getSimilarPlayers(player, k, weights);
+	}
+
+	public IPLDatasetLoadResult loadSeasonData(int season, String batsmanFilePath, String bowlerFilePath)
+			throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> batsmen = loadDataLeniently(batsmanFilePath,
+				CSVIPLBatsmenRecords.class, IPLCsvLoadPolicy.DEFAULT_CELL);
+		IPLCsvLoadResult<CSVIPLBowlersRecords> bowlers = loadDataLeniently(bowlerFilePath,
+				CSVIPLBowlersRecords.class, IPLCsvLoadPolicy.DEFAULT_CELL);
+		seasonHistory.addSeason(season, batsmen.getRecords(), bowlers.getRecords());
+		return new IPLDatasetLoadResult(seasonHistory.getPlayerCount(), batsmen.getErrors(), bowlers.getErrors());
+	}
+
+	public IPLSeasonHistory getSeasonHistory() {
+		return seasonHistory;
 	}
 
 	// UC1 sorting of cricketer with top batting averages && UC5 sorting the
@@ -88,9 +185,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBatsmenRecords> batsmenList = csvBuilder.getListFromCsv(reader, CSVIPLBatsmenRecords.class);
-			Function<CSVIPLBatsmenRecords, Double> batsmanEntity = record -> record.average;
-			Comparator<CSVIPLBatsmenRecords> censusComparator = Comparator.comparing(batsmanEntity);
-			this.sortBatsmenList(batsmenList, censusComparator);
+			batsmenList = rankRecords(batsmenList, IPLBatsmenColumn.AVERAGE, true);
 			String sortedPlayersListToJson = new Gson().toJson(batsmenList);
 			return sortedPlayersListToJson;
 		} catch (IOException e) {
@@ -104,9 +199,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBatsmenRecords> batsmenList = csvBuilder.getListFromCsv(reader, CSVIPLBatsmenRecords.class);
-			Function<CSVIPLBatsmenRecords, Double> batsmanEntity = record -> record.strikeRate;
-			Comparator<CSVIPLBatsmenRecords> censusComparator = Comparator.comparing(batsmanEntity);
-			this.sortBatsmenList(batsmenList, censusComparator);
+			batsmenList = rankRecords(batsmenList, IPLBatsmenColumn.STRIKE_RATE, true);
 			String sortedPlayersListToJson = new Gson().toJson(batsmenList);
 			return sortedPlayersListToJson;
 		} catch (IOException e) {
@@ -120,9 +213,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBatsmenRecords> batsmenList = csvBuilder.getListFromCsv(reader, CSVIPLBatsmenRecords.class);
-			Function<CSVIPLBatsmenRecords, Integer> batsmanEntity = record -> record.sixes;
-			Comparator<CSVIPLBatsmenRecords> censusComparator = Comparator.comparing(batsmanEntity);
-			this.sortBatsmenList(batsmenList, censusComparator);
+			batsmenList = rankRecords(batsmenList, IPLBatsmenColumn.SIXES, true);
 			String sortedPlayersListToJson = new Gson().toJson(batsmenList);
 			return sortedPlayersListToJson;
 		} catch (IOException e) {
@@ -134,9 +225,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBatsmenRecords> batsmenList = csvBuilder.getListFromCsv(reader, CSVIPLBatsmenRecords.class);
-			Function<CSVIPLBatsmenRecords, Integer> batsmanEntity = record -> record.fours;
-			Comparator<CSVIPLBatsmenRecords> censusComparator = Comparator.comparing(batsmanEntity);
-			this.sortBatsmenList(batsmenList, censusComparator);
+			batsmenList = rankRecords(batsmenList, IPLBatsmenColumn.FOURS, true);
 			String sortedPlayersListToJson = new Gson().toJson(batsmenList);
 			return sortedPlayersListToJson;
 		} catch (IOException e) {
@@ -148,9 +237,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBatsmenRecords> batsmenList = csvBuilder.getListFromCsv(reader, CSVIPLBatsmenRecords.class);
-			Function<CSVIPLBatsmenRecords, Integer> batsmanEntity = record -> record.runs;
-			Comparator<CSVIPLBatsmenRecords> censusComparator = Comparator.comparing(batsmanEntity);
-			this.sortBatsmenList(batsmenList, censusComparator);
+			batsmenList = rankRecords(batsmenList, IPLBatsmenColumn.RUNS, true);
 			String sortedPlayersListToJson = new Gson().toJson(batsmenList);
 			return sortedPlayersListToJson;
 		} catch (IOException e) {
@@ -164,9 +251,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBowlersRecords> bowlersList = csvBuilder.getListFromCsv(reader, CSVIPLBowlersRecords.class);
-			Function<CSVIPLBowlersRecords, Double> bowlersEntity = record -> record.average;
-			Comparator<CSVIPLBowlersRecords> censusComparator = Comparator.comparing(bowlersEntity);
-			this.sortBowlersList(bowlersList, censusComparator);
+			bowlersList = rankRecords(bowlersList, IPLBowlersColumn.AVERAGE, false);
 			String sortedPlayersListToJson = new Gson().toJson(bowlersList);
 			return sortedPlayersListToJson;
 		} catch (IOException e) {
@@ -180,9 +265,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBowlersRecords> bowlersList = csvBuilder.getListFromCsv(reader, CSVIPLBowlersRecords.class);
-			Function<CSVIPLBowlersRecords, Double> bowlersEntity = record -> record.strikeRate;
-			Comparator<CSVIPLBowlersRecords> censusComparator = Comparator.comparing(bowlersEntity);
-			this.sortBowlersList(bowlersList, censusComparator);
+			bowlersList = rankRecords(bowlersList, IPLBowlersColumn.STRIKE_RATE, false);
 			String sortedPlayersListToJson = new Gson().toJson(bowlersList);
 			return sortedPlayersListToJson;
 		} catch (IOException e) {
@@ -196,9 +279,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBowlersRecords> bowlersList = csvBuilder.getListFromCsv(reader, CSVIPLBowlersRecords.class);
-			Function<CSVIPLBowlersRecords, Double> bowlersEntity=record->record.economy;
-			Comparator<CSVIPLBowlersRecords> censusComparator=Comparator.comparing(bowlersEntity);
-			this.sortBowlersList(bowlersList, censusComparator);
+			bowlersList = rankRecords(bowlersList, IPLBowlersColumn.ECONOMY, false);
 			String sortedPlayersListToJson=new Gson().toJson(bowlersList);
 			return sortedPlayersListToJson;
 		} 
@@ -213,9 +294,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBowlersRecords> bowlersList = csvBuilder.getListFromCsv(reader, CSVIPLBowlersRecords.class);
-			Function<CSVIPLBowlersRecords, Double> bowlersEntity=record->record.strikeRate;
-			Comparator<CSVIPLBowlersRecords> censusComparator=Comparator.comparing(bowlersEntity);
-			this.sortBowlersList(bowlersList, censusComparator);
+			bowlersList = rankRecords(bowlersList, IPLBowlersColumn.STRIKE_RATE, false);
 			List<CSVIPLBowlersRecords> list = bowlersList.stream().filter
 					(bowler -> (bowler.fourWktHaul>0 ||  bowler.fiveWktHaul>0)).collect(Collectors.toList());
 			String sortedPlayersListToJson=new Gson().toJson(list);
@@ -232,9 +311,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBowlersRecords> bowlersList = csvBuilder.getListFromCsv(reader, CSVIPLBowlersRecords.class);
-			Function<CSVIPLBowlersRecords, Integer> bowlersEntity=record->record.wickets;
-			Comparator<CSVIPLBowlersRecords> censusComparator=Comparator.comparing(bowlersEntity);
-			this.sortBowlersList(bowlersList, censusComparator);
+			bowlersList = rankRecords(bowlersList, IPLBowlersColumn.WICKETS, false);
 			String sortedPlayersListToJson=new Gson().toJson(bowlersList);
 			return sortedPlayersListToJson;
 		} 
@@ -267,9 +344,7 @@ public class IPLAnalyser {
 		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
 			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
 			List<CSVIPLBatsmenRecords> iplBattingList = csvBuilder.getListFromCsv(reader, CSVIPLBatsmenRecords.class);
-			Function<CSVIPLBatsmenRecords, Double> batsmanEntity=record->record.average;
-			Comparator<CSVIPLBatsmenRecords> censusComparator=Comparator.comparing(batsmanEntity);
-			this.sortBatsmenList(iplBattingList, censusComparator);
+			iplBattingList = rankRecords(iplBattingList, IPLBatsmenColumn.AVERAGE, true);
 			Comparator<CSVIPLBatsmenRecords> a = Comparator.comparing(CSVIPLBatsmenRecords::getCentury)
 				.thenComparing(Comparator.comparing(CSVIPLBatsmenRecords::getAverage)).reversed();
 		return iplBattingList.stream().sorted(a).collect(Collectors.toList());
@@ -280,6 +355,22 @@ public class IPLAnalyser {
 	}
 	
 	//UC16 to know the Cricketers who hit zero 100s and 50s but had best batting averages
+	
+	public String getSortedBatsmenListOnZero50sAnd100sButBestAverage(String csvFilePath) throws IPLAnalyserException {
+		try (Reader reader = Files.newBufferedReader(Paths.get(csvFilePath));) {
+			ICsvBuilder csvBuilder = CsvBuilderFactory.createBuilder();
+			List<CSVIPLBatsmenRecords> batsmenList = csvBuilder.getListFromCsv(reader, CSVIPLBatsmenRecords.class);
+			batsmenList = rankRecords(batsmenList, IPLBatsmenColumn.AVERAGE, true);
+			List<CSVIPLBatsmenRecords> list = batsmenList.stream().filter
+					(batsman -> (batsman.century==0 && batsman.halfCentury==0)).collect(Collectors.toList());
+			String sortedPlayersListToJson=new Gson().toJson(list);
+			return sortedPlayersListToJson;
+		}
+		catch (IOException e) {
+			throw new IPLAnalyserException("Incorrect CSV File", IPLAnalyserExceptionType.CENSUS_FILE_PROBLEM);
+		}
+	}
+
 	public void sortBatsmenList(List<CSVIPLBatsmenRecords> playersList,
 			Comparator<CSVIPLBatsmenRecords> censusComparator) {
 		for (int i = 0; i < playersList.size() - 1; i++) {
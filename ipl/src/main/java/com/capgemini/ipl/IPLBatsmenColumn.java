@@ -0,0 +1,28 @@
+package com.capgemini.ipl;
+
+public enum IPLBatsmenColumn implements IPLTableColumn<CSVIPLBatsmenRecords> {
+	POSITION(IPLColumnAccessor.ofInt(record -> record.position, (record, value) -> record.position = value)),
+	PLAYER(IPLColumnAccessor.ofText(record -> record.player, (record, text) -> record.player = text)),
+	MATCH(IPLColumnAccessor.ofInt(record -> record.match, (record, value) -> record.match = value)),
+	INNINGS(IPLColumnAccessor.ofInt(record -> record.innings, (record, value) -> record.innings = value)),
+	NOT_OUT(IPLColumnAccessor.ofInt(record -> record.notOut, (record, value) -> record.notOut = value)),
+	RUNS(IPLColumnAccessor.ofInt(record -> record.runs, (record, value) -> record.runs = value)),
+	HIGHEST_SCORE(IPLColumnAccessor.ofText(record -> record.highestScore, (record, text) -> record.highestScore = text)),
+	AVERAGE(IPLColumnAccessor.ofNullableDouble(record -> record.average, (record, value) -> record.average = value)),
+	BALL_FACED(IPLColumnAccessor.ofInt(record -> record.ballFaced, (record, value) -> record.ballFaced = value)),
+	STRIKE_RATE(IPLColumnAccessor.ofDouble(record -> record.strikeRate, (record, value) -> record.strikeRate = value)),
+	CENTURY(IPLColumnAccessor.ofInt(record -> record.century, (record, value) -> record.century = value)),
+	HALF_CENTURY(IPLColumnAccessor.ofInt(record -> record.halfCentury, (record, value) -> record.halfCentury = value)),
+	FOURS(IPLColumnAccessor.ofInt(record -> record.fours, (record, value) -> record.fours = value)),
+	SIXES(IPLColumnAccessor.ofInt(record -> record.sixes, (record, value) -> record.sixes = value));
+
+	private final IPLColumnAccessor<CSVIPLBatsmenRecords> accessor;
+
+	private IPLBatsmenColumn(IPLColumnAccessor<CSVIPLBatsmenRecords> accessor) {
+		this.accessor = accessor;
+	}
+
+	public IPLColumnAccessor<CSVIPLBatsmenRecords> getAccessor() {
+		return accessor;
+	}
+}
@@ -0,0 +1,27 @@
+package com.capgemini.ipl;
+
+public enum IPLBowlersColumn implements IPLTableColumn<CSVIPLBowlersRecords> {
+	POSITION(IPLColumnAccessor.ofInt(record -> record.position, (record, value) -> record.position = value)),
+	PLAYER(IPLColumnAccessor.ofText(record -> record.player, (record, text) -> record.player = text)),
+	MATCH(IPLColumnAccessor.ofInt(record -> record.match, (record, value) -> record.match = value)),
+	INNINGS(IPLColumnAccessor.ofInt(record -> record.innings, (record, value) -> record.innings = value)),
+	OVERS(IPLColumnAccessor.ofDouble(record -> record.overs, (record, value) -> record.overs = value)),
+	RUNS(IPLColumnAccessor.ofInt(record -> record.runs, (record, value) -> record.runs = value)),
+	WICKETS(IPLColumnAccessor.ofInt(record -> record.wickets, (record, value) -> record.wickets = value)),
+	BBI(IPLColumnAccessor.ofInt(record -> record.bbi, (record, value) -> record.bbi = value)),
+	AVERAGE(IPLColumnAccessor.ofDouble(record -> record.average, (record, value) -> record.average = value)),
+	ECONOMY(IPLColumnAccessor.ofDouble(record -> record.economy, (record, value) -> record.economy = value)),
+	STRIKE_RATE(IPLColumnAccessor.ofDouble(record -> record.strikeRate, (record, value) -> record.strikeRate = value)),
+	FOUR_WKT_HAUL(IPLColumnAccessor.ofInt(record -> record.fourWktHaul, (record, value) -> record.fourWktHaul = value)),
+	FIVE_WKT_HAUL(IPLColumnAccessor.ofInt(record -> record.fiveWktHaul, (record, value) -> record.fiveWktHaul = value));
+
+	private final IPLColumnAccessor<CSVIPLBowlersRecords> accessor;
+
+	private IPLBowlersColumn(IPLColumnAccessor<CSVIPLBowlersRecords> accessor) {
+		this.accessor = accessor;
+	}
+
+	public IPLColumnAccessor<CSVIPLBowlersRecords> getAccessor() {
+		return accessor;
+	}
+}
@@ -0,0 +1,104 @@
+package com.capgemini.ipl;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+public class IPLColumnAccessor<T> {
+	private final IPLColumnType type;
+	private final ToDoubleFunction<T> valueGetter;
+	private final ObjDoubleConsumer<T> valueSetter;
+	private final Function<T, String> textGetter;
+	private final BiConsumer<T, String> textSetter;
+	private final Predicate<T> nullTest;
+	private final Consumer<T> nullSetter;
+
+	private IPLColumnAccessor(IPLColumnType type, ToDoubleFunction<T> valueGetter, ObjDoubleConsumer<T> valueSetter,
+			Function<T, String> textGetter, BiConsumer<T, String> textSetter) {
+		this(type, valueGetter, valueSetter, textGetter, textSetter, null, null);
+	}
+
+	private IPLColumnAccessor(IPLColumnType type, ToDoubleFunction<T> valueGetter, ObjDoubleConsumer<T> valueSetter,
+			Function<T, String> textGetter, BiConsumer<T, String> textSetter, Predicate<T> nullTest,
+			Consumer<T> nullSetter) {
+		this.type = type;
+		this.valueGetter = valueGetter;
+		this.valueSetter = valueSetter;
+		this.textGetter = textGetter;
+		this.textSetter = textSetter;
+		this.nullTest = nullTest;
+		this.nullSetter = nullSetter;
+	}
+
+	public static <T> IPLColumnAccessor<T> ofInt(ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+		return new IPLColumnAccessor<T>(IPLColumnType.INT, getter::applyAsInt,
+				(record, value) -> setter.accept(record, (int) value),
+				record -> Integer.toString(getter.applyAsInt(record)), null);
+	}
+
+	public static <T> IPLColumnAccessor<T> ofDouble(ToDoubleFunction<T> getter, ObjDoubleConsumer<T> setter) {
+		return new IPLColumnAccessor<T>(IPLColumnType.DOUBLE, getter, setter,
+				record -> Double.toString(getter.applyAsDouble(record)), null);
+	}
+
+	// a boxed column where null means no figure, such as a batting average without
+	// a dismissal; it ranks as 0, reads back as null text and is restored as null
+	public static <T> IPLColumnAccessor<T> ofNullableDouble(Function<T, Double> getter, BiConsumer<T, Double> setter) {
+		return new IPLColumnAccessor<T>(IPLColumnType.DOUBLE, record -> {
+			Double value = getter.apply(record);
+			return value == null ? 0 : value;
+		}, setter::accept, record -> {
+			Double value = getter.apply(record);
+			return value == null ? null : value.toString();
+		}, null, record -> getter.apply(record) == null, record -> setter.accept(record, null));
+	}
+
+	public static <T> IPLColumnAccessor<T> ofText(Function<T, String> getter, BiConsumer<T, String> setter) {
+		return new IPLColumnAccessor<T>(IPLColumnType.STRING, null, null, getter, setter);
+	}
+
+	public IPLColumnType getType() {
+		return type;
+	}
+
+	public double valueOf(T record) {
+		if (valueGetter == null)
+			throw new IllegalStateException(type + " column is not numeric");
+		return valueGetter.applyAsDouble(record);
+	}
+
+	public void setValue(T record, double value) {
+		if (valueSetter == null)
+			throw new IllegalStateException(type + " column is not numeric");
+		valueSetter.accept(record, value);
+	}
+
+	public boolean isNullable() {
+		return nullTest != null;
+	}
+
+	public boolean isNull(T record) {
+		return nullTest != null && nullTest.test(record);
+	}
+
+	public void setNull(T record) {
+		if (nullSetter == null)
+			throw new IllegalStateException(type + " column is not nullable");
+		nullSetter.accept(record);
+	}
+
+	public String textOf(T record) {
+		return textGetter.apply(record);
+	}
+
+	public void setText(T record, String text) {
+		if (textSetter == null)
+			throw new IllegalStateException(type + " column is not text");
+		textSetter.accept(record, text);
+	}
+}
@@ -0,0 +1,15 @@
+package com.capgemini.ipl;
+
+public enum IPLColumnType {
+	INT(4), DOUBLE(8), STRING(8);
+
+	private final int width;
+
+	private IPLColumnType(int width) {
+		this.width = width;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+}
@@ -0,0 +1,30 @@
+package com.capgemini.ipl;
+
+public class IPLCsvError {
+	private final int line;
+	private final String column;
+	private final String reason;
+
+	public IPLCsvError(int line, String column, String reason) {
+		this.line = line;
+		this.column = column;
+		this.reason = reason;
+	}
+
+	public int getLine() {
+		return line;
+	}
+
+	public String getColumn() {
+		return column;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	@Override
+	public String toString() {
+		return "IPLCsvError [line=" + line + ", column=" + column + ", reason=" + reason + "]";
+	}
+}
@@ -0,0 +1,5 @@
+package com.capgemini.ipl;
+
+public enum IPLCsvLoadPolicy {
+	SKIP_ROW, DEFAULT_CELL
+}
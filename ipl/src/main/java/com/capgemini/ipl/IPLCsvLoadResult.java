@@ -0,0 +1,25 @@
+package com.capgemini.ipl;
+
+import java.util.List;
+
+public class IPLCsvLoadResult<T> {
+	private final List<T> records;
+	private final List<IPLCsvError> errors;
+
+	public IPLCsvLoadResult(List<T> records, List<IPLCsvError> errors) {
+		this.records = records;
+		this.errors = errors;
+	}
+
+	public List<T> getRecords() {
+		return records;
+	}
+
+	public List<IPLCsvError> getErrors() {
+		return errors;
+	}
+
+	public boolean hasErrors() {
+		return !errors.isEmpty();
+	}
+}
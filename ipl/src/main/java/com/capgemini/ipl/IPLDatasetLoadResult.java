@@ -0,0 +1,31 @@
+package com.capgemini.ipl;
+
+import java.util.List;
+
+public class IPLDatasetLoadResult {
+	private final int playerCount;
+	private final List<IPLCsvError> batsmenErrors;
+	private final List<IPLCsvError> bowlersErrors;
+
+	public IPLDatasetLoadResult(int playerCount, List<IPLCsvError> batsmenErrors, List<IPLCsvError> bowlersErrors) {
+		this.playerCount = playerCount;
+		this.batsmenErrors = batsmenErrors;
+		this.bowlersErrors = bowlersErrors;
+	}
+
+	public int getPlayerCount() {
+		return playerCount;
+	}
+
+	public List<IPLCsvError> getBatsmenErrors() {
+		return batsmenErrors;
+	}
+
+	public List<IPLCsvError> getBowlersErrors() {
+		return bowlersErrors;
+	}
+
+	public boolean hasErrors() {
+		return !batsmenErrors.isEmpty() || !bowlersErrors.isEmpty();
+	}
+}
@@ -0,0 +1,43 @@
+package com.capgemini.ipl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IPLHeapPlayerTable<T, C extends Enum<C> & IPLTableColumn<T>> implements IPLPlayerTable<T, C> {
+	private final List<T> records;
+
+	public IPLHeapPlayerTable() {
+		this(new ArrayList<T>());
+	}
+
+	public IPLHeapPlayerTable(List<T> records) {
+		this.records = records;
+	}
+
+	public void append(T record) {
+		records.add(record);
+	}
+
+	public int size() {
+		return records.size();
+	}
+
+	public double getValue(int row, C column) {
+		return column.valueOf(records.get(row));
+	}
+
+	public boolean isNull(int row, C column) {
+		return column.isNull(records.get(row));
+	}
+
+	public String getText(int row, C column) {
+		return column.textOf(records.get(row));
+	}
+
+	public T getRecord(int row) {
+		return records.get(row);
+	}
+
+	public void close() {
+	}
+}
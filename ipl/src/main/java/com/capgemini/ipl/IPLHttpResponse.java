@@ -0,0 +1,53 @@
+package com.capgemini.ipl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+// The gzip body is encoded on first use and then kept, and it carries its own
+// ETag because it is a different representation of the same resource.
+
+public class IPLHttpResponse {
+	private final byte[] body;
+	private final String etag;
+	private final String gzipEtag;
+	private volatile byte[] gzipBody;
+
+	public IPLHttpResponse(String json, String tag) {
+		this.body = json.getBytes(StandardCharsets.UTF_8);
+		this.etag = "\"" + tag + "\"";
+		this.gzipEtag = "\"" + tag + "-gz\"";
+	}
+
+	private static byte[] gzip(byte[] body) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+			gzip.write(body);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+	public byte[] getGzipBody() {
+		byte[] encoded = gzipBody;
+		if (encoded == null) {
+			encoded = gzip(body);
+			gzipBody = encoded;
+		}
+		return encoded;
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	public String getGzipEtag() {
+		return gzipEtag;
+	}
+}
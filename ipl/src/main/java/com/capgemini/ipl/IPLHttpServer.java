@@ -0,0 +1,247 @@
+package com.capgemini.ipl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.security.SecureRandom;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Serves rankings, all-rounder queries and player lookups over a loaded dataset.
+// Leaderboards are encoded once per load and player lookups once per dataset
+// version, so repeated requests only write cached bytes.
+// The JDK server keeps HTTP/1.1 connections alive as long as every response
+// has a fixed Content-Length, which all responses here do.
+// ETags carry a random per-server epoch as well as the dataset version, so a
+// restarted or second instance never reuses a tag for different content.
+
+public class IPLHttpServer {
+	private final IPLAnalyser iplAnalyser;
+	private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+	private HttpServer server;
+	private ExecutorService executor;
+	private long version;
+	private volatile Dataset dataset;
+
+	private static class Dataset {
+		private final String tagPrefix;
+		private final Map<String, CSVIPLBatsmenRecords> batsmen = new HashMap<String, CSVIPLBatsmenRecords>();
+		private final Map<String, CSVIPLBowlersRecords> bowlers = new HashMap<String, CSVIPLBowlersRecords>();
+		private final Map<String, IPLHttpResponse> responses = new HashMap<String, IPLHttpResponse>();
+		private final Map<String, IPLHttpResponse> lookups = new ConcurrentHashMap<String, IPLHttpResponse>();
+		private final Gson gson = new Gson();
+
+		private Dataset(String tagPrefix) {
+			this.tagPrefix = tagPrefix;
+		}
+	}
+
+	public IPLHttpServer(IPLAnalyser iplAnalyser) {
+		this.iplAnalyser = iplAnalyser;
+	}
+
+	// reloads are serialized so versions are never reused and the last dataset
+	// published is always the last one loaded
+	public synchronized IPLDatasetLoadResult reload(String batsmanFilePath, String bowlerFilePath)
+			throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> batsmen = iplAnalyser.loadDataLeniently(batsmanFilePath,
+				CSVIPLBatsmenRecords.class, IPLCsvLoadPolicy.DEFAULT_CELL);
+		IPLCsvLoadResult<CSVIPLBowlersRecords> bowlers = iplAnalyser.loadDataLeniently(bowlerFilePath,
+				CSVIPLBowlersRecords.class, IPLCsvLoadPolicy.DEFAULT_CELL);
+		List<CSVIPLBatsmenRecords> batsmenList = batsmen.getRecords();
+		List<CSVIPLBowlersRecords> bowlersList = bowlers.getRecords();
+		// bowling average and strike rate do not exist without a wicket ('-' in the factsheets)
+		List<CSVIPLBowlersRecords> wicketTakers = bowlersList.stream().filter(bowler -> bowler.wickets > 0)
+				.collect(Collectors.toList());
+		Dataset next = new Dataset(epoch + "-" + (version + 1));
+		for (CSVIPLBatsmenRecords batsman : batsmenList)
+			next.batsmen.put(IPLPlayerKey.of(batsman.player), batsman);
+		for (CSVIPLBowlersRecords bowler : bowlersList)
+			next.bowlers.put(IPLPlayerKey.of(bowler.player), bowler);
+
+		Gson gson = next.gson;
+		putRanking(next, gson, "batting-average", batsmenList, IPLBatsmenColumn.AVERAGE, true);
+		putRanking(next, gson, "batting-strike-rate", batsmenList, IPLBatsmenColumn.STRIKE_RATE, true);
+		putRanking(next, gson, "sixes", batsmenList, IPLBatsmenColumn.SIXES, true);
+		putRanking(next, gson, "fours", batsmenList, IPLBatsmenColumn.FOURS, true);
+		putRanking(next, gson, "runs", batsmenList, IPLBatsmenColumn.RUNS, true);
+		putRanking(next, gson, "bowling-average", wicketTakers, IPLBowlersColumn.AVERAGE, false);
+		putRanking(next, gson, "bowling-strike-rate", wicketTakers, IPLBowlersColumn.STRIKE_RATE, false);
+		putRanking(next, gson, "economy", bowlersList, IPLBowlersColumn.ECONOMY, false);
+		putRanking(next, gson, "wickets", bowlersList, IPLBowlersColumn.WICKETS, true);
+
+		int playerCount = iplAnalyser.rebuildSimilarPlayerIndex(batsmenList, bowlersList);
+		List<IPLAllRounder> allRounders = iplAnalyser.getAllRounders(batsmenList, bowlersList);
+		putResponse(next, "/allrounders/average", gson.toJson(allRounders.stream()
+				.sorted(Comparator.comparing(IPLAllRounder::getPerformanceByAverage).reversed())
+				.collect(Collectors.toList())));
+		putResponse(next, "/allrounders/runs-wickets", gson.toJson(allRounders.stream()
+				.sorted(Comparator.comparing(IPLAllRounder::getPerformanceByRunsAndWickets).reversed())
+				.collect(Collectors.toList())));
+		version++;
+		this.dataset = next;
+		return new IPLDatasetLoadResult(playerCount, batsmen.getErrors(), bowlers.getErrors());
+	}
+
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	private <T, C extends Enum<C> & IPLTableColumn<T>> void putRanking(Dataset next, Gson gson, String name,
+			List<T> playersList, C column, boolean descending) {
+		putResponse(next, "/rankings/" + name, gson.toJson(iplAnalyser.rankRecords(playersList, column, descending)));
+	}
+
+	private static void putResponse(Dataset next, String path, String json) {
+		next.responses.put(path, new IPLHttpResponse(json, tagOf(next, path)));
+	}
+
+	private static String tagOf(Dataset dataset, String path) {
+		return dataset.tagPrefix + "-" + Integer.toHexString(path.hashCode());
+	}
+
+	public void start(int port) throws IOException {
+		start(port, false);
+	}
+
+	// headers and body go out in separate writes; without TCP_NODELAY every
+	// keep-alive request waits on the client's delayed ACK. The JDK reads
+	// sun.net.httpserver.nodelay once for the whole JVM, when the first server is
+	// created, so this only takes effect if nothing else set it first; deployments
+	// should prefer -Dsun.net.httpserver.nodelay=true on the command line.
+	public void start(int port, boolean tcpNoDelay) throws IOException {
+		if (tcpNoDelay && System.getProperty("sun.net.httpserver.nodelay") == null)
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+		executor = newHandlerExecutor();
+		server.setExecutor(executor);
+		server.createContext("/rankings/", this::handlePrecomputed);
+		server.createContext("/allrounders/", this::handlePrecomputed);
+		server.createContext("/players", this::handlePlayer);
+		server.start();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	public void stop() {
+		if (server != null)
+			server.stop(0);
+		if (executor != null)
+			executor.shutdownNow();
+	}
+
+	// virtual threads when the runtime has them (JDK 21+), a cached pool otherwise
+	private static ExecutorService newHandlerExecutor() {
+		try {
+			Method virtualExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) virtualExecutor.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	private void handlePrecomputed(HttpExchange exchange) throws IOException {
+		Dataset current = dataset;
+		IPLHttpResponse response = current == null ? null : current.responses.get(exchange.getRequestURI().getPath());
+		if (response == null) {
+			sendStatus(exchange, 404);
+			return;
+		}
+		send(exchange, response);
+	}
+
+	private void handlePlayer(HttpExchange exchange) throws IOException {
+		Dataset current = dataset;
+		String player = queryParameter(exchange.getRequestURI().getRawQuery(), "name");
+		if (current == null || player == null) {
+			sendStatus(exchange, 404);
+			return;
+		}
+		String key = IPLPlayerKey.of(player);
+		CSVIPLBatsmenRecords batting = current.batsmen.get(key);
+		CSVIPLBowlersRecords bowling = current.bowlers.get(key);
+		if (batting == null && bowling == null) {
+			sendStatus(exchange, 404);
+			return;
+		}
+		IPLHttpResponse response = current.lookups.computeIfAbsent(key, playerKey -> {
+			Map<String, Object> lookup = new LinkedHashMap<String, Object>();
+			lookup.put("batting", batting);
+			lookup.put("bowling", bowling);
+			return new IPLHttpResponse(current.gson.toJson(lookup), tagOf(current, "/players/" + playerKey));
+		});
+		send(exchange, response);
+	}
+
+	private static String queryParameter(String rawQuery, String name) throws IOException {
+		if (rawQuery == null)
+			return null;
+		for (String parameter : rawQuery.split("&")) {
+			int separator = parameter.indexOf('=');
+			if (separator > 0 && parameter.substring(0, separator).equals(name))
+				return URLDecoder.decode(parameter.substring(separator + 1), "UTF-8");
+		}
+		return null;
+	}
+
+	private static void send(HttpExchange exchange, IPLHttpResponse response) throws IOException {
+		Headers requestHeaders = exchange.getRequestHeaders();
+		Headers responseHeaders = exchange.getResponseHeaders();
+		String acceptEncoding = requestHeaders.getFirst("Accept-Encoding");
+		boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+		String etag = gzip ? response.getGzipEtag() : response.getEtag();
+		responseHeaders.set("ETag", etag);
+		responseHeaders.set("Vary", "Accept-Encoding");
+		if (matchesEtag(requestHeaders.getFirst("If-None-Match"), etag)) {
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+		byte[] body = response.getBody();
+		if (gzip) {
+			body = response.getGzipBody();
+			responseHeaders.set("Content-Encoding", "gzip");
+		}
+		responseHeaders.set("Content-Type", "application/json; charset=utf-8");
+		if (body.length == 0) {
+			sendStatus(exchange, 200);
+			return;
+		}
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static boolean matchesEtag(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null)
+			return false;
+		for (String candidate : ifNoneMatch.split(",")) {
+			String trimmed = candidate.trim();
+			if (trimmed.equals("*") || trimmed.equals(etag))
+				return true;
+		}
+		return false;
+	}
+
+	private static void sendStatus(HttpExchange exchange, int status) throws IOException {
+		exchange.sendResponseHeaders(status, -1);
+		exchange.close();
+	}
+}
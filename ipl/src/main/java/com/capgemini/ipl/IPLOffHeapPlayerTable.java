@@ -0,0 +1,234 @@
+package com.capgemini.ipl;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Fixed-width rows in direct ByteBuffer pages, with names and other text
+// columns in a separate byte arena. Rows hold (arena page, offset) references
+// to length-prefixed UTF-8 entries, and repeated names share one entry while
+// loading. Pages keep a table past the 2GB limit of a single buffer and mean
+// appends never copy.
+//
+// A table is not thread-safe. Load it and query it from one thread, or hand it
+// over through a proper happens-before edge. close() frees the memory at once,
+// so it must not race with readers: a read after close throws, but a read
+// running concurrently with close can touch freed memory.
+
+public class IPLOffHeapPlayerTable<T, C extends Enum<C> & IPLTableColumn<T>> implements IPLPlayerTable<T, C> {
+	private static final int ROW_PAGE_SHIFT = 14;
+	private static final int ROWS_PER_PAGE = 1 << ROW_PAGE_SHIFT;
+	private static final int ARENA_PAGE_SIZE = 1 << 18;
+	private static final long NULL_TEXT = -1L;
+	// a NaN payload no arithmetic produces, so a stored NaN still reads back as NaN
+	private static final long NULL_DOUBLE = 0x7ff80000_4e554c4cL;
+	private static final int MAX_INTERNED_TEXTS = 1 << 16;
+	private static final Method INVOKE_CLEANER;
+	private static final Object UNSAFE;
+
+	static {
+		Method invokeCleaner = null;
+		Object unsafe = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// buffers are then released by the garbage collector
+		}
+		INVOKE_CLEANER = invokeCleaner;
+		UNSAFE = unsafe;
+	}
+
+	private final C[] columns;
+	private final int[] offsets;
+	private final int recordWidth;
+	private final Supplier<T> recordFactory;
+	private final List<ByteBuffer> pages = new ArrayList<ByteBuffer>();
+	private final List<ByteBuffer> arenaPages = new ArrayList<ByteBuffer>();
+	private final Map<String, Long> arenaReferences = new HashMap<String, Long>();
+	private int size;
+	private volatile boolean closed;
+
+	public IPLOffHeapPlayerTable(Class<C> columnType, Supplier<T> recordFactory) {
+		this.columns = columnType.getEnumConstants();
+		this.offsets = new int[columns.length];
+		int width = 0;
+		for (C column : columns) {
+			offsets[column.ordinal()] = width;
+			width += column.getType().getWidth();
+		}
+		this.recordWidth = width;
+		this.recordFactory = recordFactory;
+	}
+
+	public void append(T record) {
+		checkOpen();
+		if (size == Integer.MAX_VALUE)
+			throw new IllegalStateException("table is full");
+		int page = size >>> ROW_PAGE_SHIFT;
+		if (page == pages.size())
+			pages.add(ByteBuffer.allocateDirect(ROWS_PER_PAGE * recordWidth).order(ByteOrder.nativeOrder()));
+		ByteBuffer buffer = pages.get(page);
+		int base = (size & (ROWS_PER_PAGE - 1)) * recordWidth;
+		for (C column : columns) {
+			int index = base + offsets[column.ordinal()];
+			switch (column.getType()) {
+			case INT:
+				buffer.putInt(index, (int) column.valueOf(record));
+				break;
+			case DOUBLE:
+				if (column.isNull(record))
+					buffer.putLong(index, NULL_DOUBLE);
+				else
+					buffer.putDouble(index, column.valueOf(record));
+				break;
+			case STRING:
+				buffer.putLong(index, putText(column.textOf(record)));
+				break;
+			}
+		}
+		size++;
+	}
+
+	private long putText(String text) {
+		if (text == null)
+			return NULL_TEXT;
+		Long interned = arenaReferences.get(text);
+		if (interned != null)
+			return interned;
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		int required = 4 + bytes.length;
+		ByteBuffer arena = arenaPages.isEmpty() ? null : arenaPages.get(arenaPages.size() - 1);
+		if (arena == null || arena.remaining() < required) {
+			arena = ByteBuffer.allocateDirect(Math.max(ARENA_PAGE_SIZE, required)).order(ByteOrder.nativeOrder());
+			arenaPages.add(arena);
+		}
+		long reference = ((long) (arenaPages.size() - 1) << 32) | arena.position();
+		arena.putInt(bytes.length);
+		arena.put(bytes);
+		// repeated names are few and hot; past the bound new text is stored as is
+		if (arenaReferences.size() < MAX_INTERNED_TEXTS)
+			arenaReferences.put(text, reference);
+		return reference;
+	}
+
+	private String getText(long reference) {
+		if (reference == NULL_TEXT)
+			return null;
+		ByteBuffer arena = arenaPages.get((int) (reference >>> 32));
+		int offset = (int) reference;
+		byte[] bytes = new byte[arena.getInt(offset)];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = arena.get(offset + 4 + i);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private int indexOf(int row, C column) {
+		checkOpen();
+		if (row < 0 || row >= size)
+			throw new IndexOutOfBoundsException("row " + row + " of " + size);
+		return (row & (ROWS_PER_PAGE - 1)) * recordWidth + offsets[column.ordinal()];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public double getValue(int row, C column) {
+		int index = indexOf(row, column);
+		ByteBuffer buffer = pages.get(row >>> ROW_PAGE_SHIFT);
+		switch (column.getType()) {
+		case INT:
+			return buffer.getInt(index);
+		case DOUBLE:
+			return buffer.getLong(index) == NULL_DOUBLE ? 0 : buffer.getDouble(index);
+		default:
+			throw new IllegalStateException(column.name() + " is not a numeric column");
+		}
+	}
+
+	public boolean isNull(int row, C column) {
+		int index = indexOf(row, column);
+		ByteBuffer buffer = pages.get(row >>> ROW_PAGE_SHIFT);
+		switch (column.getType()) {
+		case DOUBLE:
+			return buffer.getLong(index) == NULL_DOUBLE;
+		case STRING:
+			return buffer.getLong(index) == NULL_TEXT;
+		default:
+			return false;
+		}
+	}
+
+	public String getText(int row, C column) {
+		int index = indexOf(row, column);
+		ByteBuffer buffer = pages.get(row >>> ROW_PAGE_SHIFT);
+		switch (column.getType()) {
+		case INT:
+			return Integer.toString(buffer.getInt(index));
+		case DOUBLE:
+			return buffer.getLong(index) == NULL_DOUBLE ? null : Double.toString(buffer.getDouble(index));
+		default:
+			return getText(buffer.getLong(index));
+		}
+	}
+
+	public T getRecord(int row) {
+		checkOpen();
+		T record = recordFactory.get();
+		for (C column : columns) {
+			if (column.getType() == IPLColumnType.STRING)
+				column.setText(record, getText(row, column));
+			else if (isNull(row, column))
+				column.setNull(record);
+			else
+				column.setValue(record, getValue(row, column));
+		}
+		return record;
+	}
+
+	// drops the on-heap dedup map once the table is fully loaded
+	@Override
+	public void finishLoading() {
+		arenaReferences.clear();
+	}
+
+	public void close() {
+		if (closed)
+			return;
+		closed = true;
+		for (ByteBuffer buffer : pages)
+			release(buffer);
+		for (ByteBuffer buffer : arenaPages)
+			release(buffer);
+		pages.clear();
+		arenaPages.clear();
+		arenaReferences.clear();
+		size = 0;
+	}
+
+	private static void release(ByteBuffer buffer) {
+		if (INVOKE_CLEANER == null)
+			return;
+		try {
+			INVOKE_CLEANER.invoke(UNSAFE, buffer);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// left to the garbage collector
+		}
+	}
+
+	private void checkOpen() {
+		if (closed)
+			throw new IllegalStateException("table is closed");
+	}
+}
@@ -0,0 +1,12 @@
+package com.capgemini.ipl;
+
+public enum IPLPlayerFeature {
+	BATTING_AVERAGE, BATTING_STRIKE_RATE, RUNS, FOURS, SIXES, WICKETS, BOWLING_AVERAGE, ECONOMY, BOWLING_STRIKE_RATE;
+
+	public static double[] defaultWeights() {
+		double[] weights = new double[values().length];
+		for (int i = 0; i < weights.length; i++)
+			weights[i] = 1.0;
+		return weights;
+	}
+}
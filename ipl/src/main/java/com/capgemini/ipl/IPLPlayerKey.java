@@ -0,0 +1,16 @@
+package com.capgemini.ipl;
+
+import java.util.Locale;
+
+// One definition of "the same player" for every lookup and join: factsheet
+// names carry stray trailing spaces and inconsistent case.
+
+public class IPLPlayerKey {
+
+	private IPLPlayerKey() {
+	}
+
+	public static String of(String player) {
+		return player == null ? null : player.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,22 @@
+package com.capgemini.ipl;
+
+public interface IPLPlayerTable<T, C extends Enum<C> & IPLTableColumn<T>> extends AutoCloseable {
+	public void append(T record);
+
+	public int size();
+
+	public double getValue(int row, C column);
+
+	// null columns read as 0 from getValue and as null text
+	public boolean isNull(int row, C column);
+
+	public String getText(int row, C column);
+
+	public T getRecord(int row);
+
+	public default void finishLoading() {
+	}
+
+	@Override
+	public void close();
+}
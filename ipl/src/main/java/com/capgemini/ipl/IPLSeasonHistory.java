@@ -0,0 +1,224 @@
+package com.capgemini.ipl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-player, per-season stat columns with prefix sums, so any season-range
+// aggregate is two array lookups instead of a rescan of every season file.
+
+public class IPLSeasonHistory {
+	private static final int STATS = IPLSeasonStat.values().length;
+
+	private final Map<String, PlayerHistory> players = new LinkedHashMap<String, PlayerHistory>();
+	private boolean hasSeasons;
+	private int firstSeason;
+	private int lastSeason;
+
+	private static class PlayerHistory {
+		private final String player;
+		private long[][] values;
+		private long[][] prefixSums;
+		private boolean dirty;
+
+		private PlayerHistory(String player, int seasons) {
+			this.player = player;
+			this.values = new long[STATS][seasons];
+			this.prefixSums = new long[STATS][seasons + 1];
+		}
+
+		private void updatePrefixSums() {
+			for (int stat = 0; stat < STATS; stat++)
+				for (int season = 0; season < values[stat].length; season++)
+					prefixSums[stat][season + 1] = prefixSums[stat][season] + values[stat][season];
+		}
+	}
+
+	public void addSeason(int season, List<CSVIPLBatsmenRecords> batsmenList, List<CSVIPLBowlersRecords> bowlersList) {
+		ensureSeason(season);
+		int column = season - firstSeason;
+		List<PlayerHistory> updated = new ArrayList<PlayerHistory>();
+		clearSeason(column, updated);
+		for (CSVIPLBatsmenRecords batsman : batsmenList) {
+			long[][] values = historyFor(batsman.player, updated).values;
+			values[IPLSeasonStat.MATCHES.ordinal()][column] = batsman.match;
+			values[IPLSeasonStat.INNINGS.ordinal()][column] = batsman.innings;
+			values[IPLSeasonStat.NOT_OUT.ordinal()][column] = batsman.notOut;
+			values[IPLSeasonStat.RUNS.ordinal()][column] = batsman.runs;
+			values[IPLSeasonStat.BALLS_FACED.ordinal()][column] = batsman.ballFaced;
+			values[IPLSeasonStat.CENTURIES.ordinal()][column] = batsman.century;
+			values[IPLSeasonStat.HALF_CENTURIES.ordinal()][column] = batsman.halfCentury;
+			values[IPLSeasonStat.FOURS.ordinal()][column] = batsman.fours;
+			values[IPLSeasonStat.SIXES.ordinal()][column] = batsman.sixes;
+		}
+		for (CSVIPLBowlersRecords bowler : bowlersList) {
+			long[][] values = historyFor(bowler.player, updated).values;
+			values[IPLSeasonStat.MATCHES.ordinal()][column] = Math.max(bowler.match,
+					values[IPLSeasonStat.MATCHES.ordinal()][column]);
+			values[IPLSeasonStat.BALLS_BOWLED.ordinal()][column] = ballsOf(bowler.overs);
+			values[IPLSeasonStat.RUNS_CONCEDED.ordinal()][column] = bowler.runs;
+			values[IPLSeasonStat.WICKETS.ordinal()][column] = bowler.wickets;
+			values[IPLSeasonStat.FOUR_WICKET_HAULS.ordinal()][column] = bowler.fourWktHaul;
+			values[IPLSeasonStat.FIVE_WICKET_HAULS.ordinal()][column] = bowler.fiveWktHaul;
+		}
+		for (PlayerHistory history : updated) {
+			history.updatePrefixSums();
+			history.dirty = false;
+		}
+	}
+
+	// a reloaded season replaces the previous load, including players no longer in it
+	private void clearSeason(int column, List<PlayerHistory> updated) {
+		for (PlayerHistory history : players.values()) {
+			for (int stat = 0; stat < STATS; stat++) {
+				if (history.values[stat][column] != 0) {
+					history.values[stat][column] = 0;
+					markDirty(history, updated);
+				}
+			}
+		}
+	}
+
+	private static void markDirty(PlayerHistory history, List<PlayerHistory> updated) {
+		if (!history.dirty) {
+			history.dirty = true;
+			updated.add(history);
+		}
+	}
+
+	// overs are recorded as "64.2", that is 64 overs and 2 balls
+	private static long ballsOf(double overs) {
+		long completedOvers = (long) overs;
+		return completedOvers * 6 + Math.round((overs - completedOvers) * 10);
+	}
+
+	private PlayerHistory historyFor(String player, List<PlayerHistory> updated) {
+		String key = IPLPlayerKey.of(player);
+		PlayerHistory history = players.get(key);
+		if (history == null) {
+			history = new PlayerHistory(player.trim(), lastSeason - firstSeason + 1);
+			players.put(key, history);
+		}
+		markDirty(history, updated);
+		return history;
+	}
+
+	private void ensureSeason(int season) {
+		if (!hasSeasons) {
+			hasSeasons = true;
+			firstSeason = season;
+			lastSeason = season;
+			return;
+		}
+		if (season >= firstSeason && season <= lastSeason)
+			return;
+		int newFirstSeason = Math.min(firstSeason, season);
+		int newLastSeason = Math.max(lastSeason, season);
+		int offset = firstSeason - newFirstSeason;
+		int seasons = newLastSeason - newFirstSeason + 1;
+		for (PlayerHistory history : players.values()) {
+			long[][] values = new long[STATS][seasons];
+			for (int stat = 0; stat < STATS; stat++)
+				System.arraycopy(history.values[stat], 0, values[stat], offset, history.values[stat].length);
+			history.values = values;
+			history.prefixSums = new long[STATS][seasons + 1];
+			history.updatePrefixSums();
+		}
+		firstSeason = newFirstSeason;
+		lastSeason = newLastSeason;
+	}
+
+	public int getPlayerCount() {
+		return players.size();
+	}
+
+	public long getTotal(String player, IPLSeasonStat stat, int fromSeason, int toSeason) throws IPLAnalyserException {
+		PlayerHistory history = players.get(IPLPlayerKey.of(player));
+		if (history == null)
+			throw new IPLAnalyserException("Unknown Player", IPLAnalyserExceptionType.SOME_OTHER_ERRORS);
+		return total(history, stat, fromSeason, toSeason);
+	}
+
+	private long total(PlayerHistory history, IPLSeasonStat stat, int fromSeason, int toSeason) {
+		if (!hasSeasons)
+			return 0;
+		int from = Math.max(fromSeason, firstSeason) - firstSeason;
+		int to = Math.min(toSeason, lastSeason) - firstSeason;
+		if (from > to)
+			return 0;
+		long[] prefixSums = history.prefixSums[stat.ordinal()];
+		return prefixSums[to + 1] - prefixSums[from];
+	}
+
+	public double getStrikeRate(String player, int fromSeason, int toSeason) throws IPLAnalyserException {
+		return getRate(player, IPLSeasonRate.STRIKE_RATE, fromSeason, toSeason);
+	}
+
+	public double getBattingAverage(String player, int fromSeason, int toSeason) throws IPLAnalyserException {
+		return getRate(player, IPLSeasonRate.BATTING_AVERAGE, fromSeason, toSeason);
+	}
+
+	public double getBowlingAverage(String player, int fromSeason, int toSeason) throws IPLAnalyserException {
+		return getRate(player, IPLSeasonRate.BOWLING_AVERAGE, fromSeason, toSeason);
+	}
+
+	public double getEconomy(String player, int fromSeason, int toSeason) throws IPLAnalyserException {
+		return getRate(player, IPLSeasonRate.ECONOMY, fromSeason, toSeason);
+	}
+
+	// 0 when the range has nothing to divide by
+	public double getRate(String player, IPLSeasonRate rate, int fromSeason, int toSeason)
+			throws IPLAnalyserException {
+		PlayerHistory history = players.get(IPLPlayerKey.of(player));
+		if (history == null)
+			throw new IPLAnalyserException("Unknown Player", IPLAnalyserExceptionType.SOME_OTHER_ERRORS);
+		long denominator = denominator(history, rate, fromSeason, toSeason);
+		return denominator <= 0 ? 0 : rate(history, rate, fromSeason, toSeason, denominator);
+	}
+
+	private long denominator(PlayerHistory history, IPLSeasonRate rate, int fromSeason, int toSeason) {
+		long denominator = total(history, rate.denominator, fromSeason, toSeason);
+		if (rate.excluded != null)
+			denominator -= total(history, rate.excluded, fromSeason, toSeason);
+		return denominator;
+	}
+
+	private double rate(PlayerHistory history, IPLSeasonRate rate, int fromSeason, int toSeason, long denominator) {
+		return total(history, rate.numerator, fromSeason, toSeason) * rate.scale / denominator;
+	}
+
+	// players with a non-zero total in the range, highest first; ties keep load order
+	public List<String> getRangeLeaderboard(IPLSeasonStat stat, int fromSeason, int toSeason, int limit) {
+		PlayerHistory[] histories = players.values().toArray(new PlayerHistory[0]);
+		long[] totals = new long[histories.length];
+		for (int i = 0; i < histories.length; i++)
+			totals[i] = total(histories[i], stat, fromSeason, toSeason);
+		return playersOf(histories,
+				IPLTableQueries.top(histories.length, i -> totals[i] != 0, i -> totals[i], limit));
+	}
+
+	// players whose denominator over the range reaches minimumDenominator (at least
+	// 1), best rate first, so a single ball faced cannot top the strike rates
+	public List<String> getRangeRateLeaderboard(IPLSeasonRate rate, int fromSeason, int toSeason,
+			long minimumDenominator, int limit) {
+		PlayerHistory[] histories = players.values().toArray(new PlayerHistory[0]);
+		long floor = Math.max(1, minimumDenominator);
+		long[] denominators = new long[histories.length];
+		double[] rates = new double[histories.length];
+		for (int i = 0; i < histories.length; i++) {
+			denominators[i] = denominator(histories[i], rate, fromSeason, toSeason);
+			if (denominators[i] >= floor)
+				rates[i] = rate(histories[i], rate, fromSeason, toSeason, denominators[i]);
+		}
+		return playersOf(histories, IPLTableQueries.top(histories.length, i -> denominators[i] >= floor,
+				i -> rate.higherIsBetter ? rates[i] : -rates[i], limit));
+	}
+
+	private static List<String> playersOf(PlayerHistory[] histories, int[] rows) {
+		List<String> leaderboard = new ArrayList<String>(rows.length);
+		for (int row : rows)
+			leaderboard.add(histories[row].player);
+		return leaderboard;
+	}
+}
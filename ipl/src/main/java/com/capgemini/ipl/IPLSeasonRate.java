@@ -0,0 +1,24 @@
+package com.capgemini.ipl;
+
+public enum IPLSeasonRate {
+	BATTING_AVERAGE(IPLSeasonStat.RUNS, IPLSeasonStat.INNINGS, IPLSeasonStat.NOT_OUT, 1, true),
+	STRIKE_RATE(IPLSeasonStat.RUNS, IPLSeasonStat.BALLS_FACED, null, 100, true),
+	BOWLING_AVERAGE(IPLSeasonStat.RUNS_CONCEDED, IPLSeasonStat.WICKETS, null, 1, false),
+	ECONOMY(IPLSeasonStat.RUNS_CONCEDED, IPLSeasonStat.BALLS_BOWLED, null, 6, false);
+
+	final IPLSeasonStat numerator;
+	final IPLSeasonStat denominator;
+	// subtracted from the denominator, as not outs are from innings
+	final IPLSeasonStat excluded;
+	final double scale;
+	final boolean higherIsBetter;
+
+	IPLSeasonRate(IPLSeasonStat numerator, IPLSeasonStat denominator, IPLSeasonStat excluded, double scale,
+			boolean higherIsBetter) {
+		this.numerator = numerator;
+		this.denominator = denominator;
+		this.excluded = excluded;
+		this.scale = scale;
+		this.higherIsBetter = higherIsBetter;
+	}
+}
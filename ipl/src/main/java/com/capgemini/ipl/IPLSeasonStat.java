@@ -0,0 +1,6 @@
+package com.capgemini.ipl;
+
+public enum IPLSeasonStat {
+	MATCHES, INNINGS, NOT_OUT, RUNS, BALLS_FACED, CENTURIES, HALF_CENTURIES, FOURS, SIXES, BALLS_BOWLED, RUNS_CONCEDED,
+	WICKETS, FOUR_WICKET_HAULS, FIVE_WICKET_HAULS
+}
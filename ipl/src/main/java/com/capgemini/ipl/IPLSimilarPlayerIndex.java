@@ -0,0 +1,129 @@
+package com.capgemini.ipl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Flat columnar index over min-max normalized player stat vectors. With only a
+// handful of features a linear scan over primitive columns beats a KD-tree.
+// A stat the player has no figure for (batting for a pure bowler, bowling
+// average without a wicket) is stored as NaN and left out of the distance.
+
+public class IPLSimilarPlayerIndex {
+	private final String[] players;
+	private final double[][] columns;
+	private final Map<String, Integer> playerIndex;
+
+	public IPLSimilarPlayerIndex(List<CSVIPLBatsmenRecords> batsmenList, List<CSVIPLBowlersRecords> bowlersList) {
+		Map<String, double[]> vectors = new LinkedHashMap<String, double[]>();
+		Map<String, String> names = new HashMap<String, String>();
+		for (CSVIPLBatsmenRecords batsman : batsmenList) {
+			double[] vector = vectorFor(vectors, names, batsman.player);
+			vector[IPLPlayerFeature.BATTING_AVERAGE.ordinal()] = batsman.average == null ? Double.NaN
+					: batsman.average;
+			vector[IPLPlayerFeature.BATTING_STRIKE_RATE.ordinal()] = batsman.strikeRate;
+			vector[IPLPlayerFeature.RUNS.ordinal()] = batsman.runs;
+			vector[IPLPlayerFeature.FOURS.ordinal()] = batsman.fours;
+			vector[IPLPlayerFeature.SIXES.ordinal()] = batsman.sixes;
+		}
+		for (CSVIPLBowlersRecords bowler : bowlersList) {
+			double[] vector = vectorFor(vectors, names, bowler.player);
+			vector[IPLPlayerFeature.WICKETS.ordinal()] = bowler.wickets;
+			vector[IPLPlayerFeature.BOWLING_AVERAGE.ordinal()] = bowler.wickets > 0 ? bowler.average : Double.NaN;
+			vector[IPLPlayerFeature.ECONOMY.ordinal()] = bowler.overs > 0 ? bowler.economy : Double.NaN;
+			vector[IPLPlayerFeature.BOWLING_STRIKE_RATE.ordinal()] = bowler.wickets > 0 ? bowler.strikeRate
+					: Double.NaN;
+		}
+		int size = vectors.size();
+		int dimensions = IPLPlayerFeature.values().length;
+		this.players = new String[size];
+		this.columns = new double[dimensions][size];
+		this.playerIndex = new HashMap<String, Integer>();
+		int row = 0;
+		for (Map.Entry<String, double[]> entry : vectors.entrySet()) {
+			players[row] = names.get(entry.getKey());
+			playerIndex.put(entry.getKey(), row);
+			for (int d = 0; d < dimensions; d++)
+				columns[d][row] = entry.getValue()[d];
+			row++;
+		}
+		for (double[] column : columns)
+			normalize(column);
+	}
+
+	private static double[] vectorFor(Map<String, double[]> vectors, Map<String, String> names, String player) {
+		String key = IPLPlayerKey.of(player);
+		double[] vector = vectors.get(key);
+		if (vector == null) {
+			vector = new double[IPLPlayerFeature.values().length];
+			Arrays.fill(vector, Double.NaN);
+			vectors.put(key, vector);
+			names.put(key, player);
+		}
+		return vector;
+	}
+
+	private static void normalize(double[] column) {
+		double min = Double.MAX_VALUE;
+		double max = -Double.MAX_VALUE;
+		for (double value : column) {
+			if (Double.isNaN(value))
+				continue;
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		double range = max - min;
+		for (int i = 0; i < column.length; i++)
+			if (!Double.isNaN(column[i]))
+				column[i] = range > 0 ? (column[i] - min) / range : 0;
+	}
+
+	public int size() {
+		return players.length;
+	}
+
+	public List<String> getSimilarPlayers(String player, int k) throws IPLAnalyserException {
+		return getSimilarPlayers(player, k, IPLPlayerFeature.defaultWeights());
+	}
+
+	public List<String> getSimilarPlayers(String player, int k, double[] weights) throws IPLAnalyserException {
+		Integer targetRow = playerIndex.get(IPLPlayerKey.of(player));
+		if (targetRow == null)
+			throw new IPLAnalyserException("Unknown Player", IPLAnalyserExceptionType.SOME_OTHER_ERRORS);
+		int target = targetRow;
+		if (weights.length != columns.length)
+			throw new IPLAnalyserException("Wrong Number Of Weights", IPLAnalyserExceptionType.SOME_OTHER_ERRORS);
+		for (double weight : weights)
+			if (!(weight >= 0) || Double.isInfinite(weight))
+				throw new IPLAnalyserException("Weights Must Be Finite And Non Negative",
+						IPLAnalyserExceptionType.SOME_OTHER_ERRORS);
+		int size = players.length;
+		double[] distances = new double[size];
+		double[] weightUsed = new double[size];
+		for (int d = 0; d < columns.length; d++) {
+			double weight = weights[d];
+			double[] column = columns[d];
+			double origin = column[target];
+			if (weight == 0 || Double.isNaN(origin))
+				continue;
+			for (int i = 0; i < size; i++) {
+				double delta = column[i] - origin;
+				if (Double.isNaN(delta))
+					continue;
+				distances[i] += weight * delta * delta;
+				weightUsed[i] += weight;
+			}
+		}
+		// a player sharing no weighted stat with the target ranks last
+		for (int i = 0; i < size; i++)
+			distances[i] = weightUsed[i] > 0 ? distances[i] / weightUsed[i] : Double.POSITIVE_INFINITY;
+		int[] nearest = IPLTableQueries.top(size, i -> i != target, i -> -distances[i], Math.min(k, size - 1));
+		List<String> similarPlayers = new ArrayList<String>(nearest.length);
+		for (int row : nearest)
+			similarPlayers.add(players[row]);
+		return similarPlayers;
+	}
+}
@@ -0,0 +1,33 @@
+package com.capgemini.ipl;
+
+public interface IPLTableColumn<T> {
+	public IPLColumnAccessor<T> getAccessor();
+
+	public default IPLColumnType getType() {
+		return getAccessor().getType();
+	}
+
+	public default double valueOf(T record) {
+		return getAccessor().valueOf(record);
+	}
+
+	public default void setValue(T record, double value) {
+		getAccessor().setValue(record, value);
+	}
+
+	public default boolean isNull(T record) {
+		return getAccessor().isNull(record);
+	}
+
+	public default void setNull(T record) {
+		getAccessor().setNull(record);
+	}
+
+	public default String textOf(T record) {
+		return getAccessor().textOf(record);
+	}
+
+	public default void setText(T record, String text) {
+		getAccessor().setText(record, text);
+	}
+}
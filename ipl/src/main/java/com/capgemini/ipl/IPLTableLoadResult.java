@@ -0,0 +1,25 @@
+package com.capgemini.ipl;
+
+import java.util.List;
+
+public class IPLTableLoadResult<T, C extends Enum<C> & IPLTableColumn<T>> {
+	private final IPLPlayerTable<T, C> table;
+	private final List<IPLCsvError> errors;
+
+	public IPLTableLoadResult(IPLPlayerTable<T, C> table, List<IPLCsvError> errors) {
+		this.table = table;
+		this.errors = errors;
+	}
+
+	public IPLPlayerTable<T, C> getTable() {
+		return table;
+	}
+
+	public List<IPLCsvError> getErrors() {
+		return errors;
+	}
+
+	public boolean hasErrors() {
+		return !errors.isEmpty();
+	}
+}
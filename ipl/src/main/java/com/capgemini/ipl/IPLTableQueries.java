@@ -0,0 +1,131 @@
+package com.capgemini.ipl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+// Ranking, filtering and the all-rounder join over IPLPlayerTable, so the same
+// queries run against the heap and off-heap backends.
+
+public class IPLTableQueries {
+
+	// top rows by one column, kept in a bounded heap of primitive keys; ties keep row order
+	public static <T, C extends Enum<C> & IPLTableColumn<T>> int[] rank(IPLPlayerTable<T, C> table, C column,
+			boolean descending, int limit) {
+		return top(table.size(), row -> true,
+				row -> descending ? table.getValue(row, column) : -table.getValue(row, column), limit);
+	}
+
+	// the highest keyed of the included rows, best first
+	static int[] top(int size, IntPredicate included, IntToDoubleFunction keyOf, int limit) {
+		int capacity = Math.max(0, Math.min(limit, size));
+		int[] heapRows = new int[capacity];
+		double[] heapKeys = new double[capacity];
+		int heapSize = 0;
+		for (int row = 0; row < size; row++) {
+			if (!included.test(row))
+				continue;
+			double key = keyOf.applyAsDouble(row);
+			if (heapSize < capacity) {
+				heapRows[heapSize] = row;
+				heapKeys[heapSize] = key;
+				siftUp(heapRows, heapKeys, heapSize++);
+			} else if (capacity > 0 && key > heapKeys[0]) {
+				heapRows[0] = row;
+				heapKeys[0] = key;
+				siftDown(heapRows, heapKeys, heapSize);
+			}
+		}
+		int[] rankedRows = new int[heapSize];
+		for (int i = heapSize - 1; i >= 0; i--) {
+			rankedRows[i] = heapRows[0];
+			heapRows[0] = heapRows[i];
+			heapKeys[0] = heapKeys[i];
+			siftDown(heapRows, heapKeys, i);
+		}
+		return rankedRows;
+	}
+
+	// the heap root is the worst kept row; among equal keys the later row is worse,
+	// which keeps the ranking stable like the list sorts it replaces
+	private static boolean worse(int[] rows, double[] keys, int i, int j) {
+		return keys[i] < keys[j] || (keys[i] == keys[j] && rows[i] > rows[j]);
+	}
+
+	private static void siftUp(int[] rows, double[] keys, int child) {
+		while (child > 0) {
+			int parent = (child - 1) / 2;
+			if (!worse(rows, keys, child, parent))
+				return;
+			swap(rows, keys, parent, child);
+			child = parent;
+		}
+	}
+
+	private static void siftDown(int[] rows, double[] keys, int heapSize) {
+		int parent = 0;
+		while (true) {
+			int worst = parent;
+			int left = 2 * parent + 1;
+			int right = left + 1;
+			if (left < heapSize && worse(rows, keys, left, worst))
+				worst = left;
+			if (right < heapSize && worse(rows, keys, right, worst))
+				worst = right;
+			if (worst == parent)
+				return;
+			swap(rows, keys, parent, worst);
+			parent = worst;
+		}
+	}
+
+	private static void swap(int[] rows, double[] keys, int i, int j) {
+		int row = rows[i];
+		rows[i] = rows[j];
+		rows[j] = row;
+		double key = keys[i];
+		keys[i] = keys[j];
+		keys[j] = key;
+	}
+
+	public static <T, C extends Enum<C> & IPLTableColumn<T>> int[] filter(IPLPlayerTable<T, C> table, C column,
+			DoublePredicate predicate) {
+		return IntStream.range(0, table.size()).filter(row -> predicate.test(table.getValue(row, column))).toArray();
+	}
+
+	public static <T, C extends Enum<C> & IPLTableColumn<T>> List<T> getRecords(IPLPlayerTable<T, C> table,
+			int[] rows) {
+		List<T> records = new ArrayList<T>(rows.length);
+		for (int row : rows)
+			records.add(table.getRecord(row));
+		return records;
+	}
+
+	public static List<IPLAllRounder> joinAllRounders(IPLPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn> batsmen,
+			IPLPlayerTable<CSVIPLBowlersRecords, IPLBowlersColumn> bowlers) {
+		Map<String, Integer> bowlerRows = new HashMap<String, Integer>();
+		for (int row = 0; row < bowlers.size(); row++) {
+			String player = bowlers.getText(row, IPLBowlersColumn.PLAYER);
+			String key = IPLPlayerKey.of(player);
+			if (key != null && !bowlerRows.containsKey(key))
+				bowlerRows.put(key, row);
+		}
+		List<IPLAllRounder> iplAllRounderList = new ArrayList<IPLAllRounder>();
+		for (int row = 0; row < batsmen.size(); row++) {
+			String player = batsmen.getText(row, IPLBatsmenColumn.PLAYER);
+			Integer bowlerRow = player == null ? null : bowlerRows.get(IPLPlayerKey.of(player));
+			if (bowlerRow != null) {
+				iplAllRounderList.add(new IPLAllRounder(player, batsmen.getValue(row, IPLBatsmenColumn.AVERAGE),
+						bowlers.getValue(bowlerRow, IPLBowlersColumn.AVERAGE),
+						(int) batsmen.getValue(row, IPLBatsmenColumn.RUNS),
+						(int) bowlers.getValue(bowlerRow, IPLBowlersColumn.WICKETS)));
+			}
+		}
+		return iplAllRounderList;
+	}
+}
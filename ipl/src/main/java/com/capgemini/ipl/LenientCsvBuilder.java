@@ -0,0 +1,280 @@
+package com.capgemini.ipl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.opencsv.bean.CsvBindByName;
+
+// Reads @CsvBindByName beans without throwing per row. Cells are validated
+// inline; a bad cell either skips its row or keeps the field default,
+// depending on the policy, and is reported with its line and column. A row
+// without a value for a required column, such as the player key, is always
+// skipped.
+
+public class LenientCsvBuilder implements ICsvBuilder {
+	private static final int TEXT = 0;
+	private static final int INT = 1;
+	private static final int BOXED_INT = 2;
+	private static final int DOUBLE = 3;
+	private static final int BOXED_DOUBLE = 4;
+	private static final int UNSUPPORTED = 5;
+
+	private final IPLCsvLoadPolicy policy;
+	private final Set<String> requiredColumns = new HashSet<String>();
+
+	public LenientCsvBuilder(IPLCsvLoadPolicy policy, String... requiredColumns) {
+		this.policy = policy;
+		for (String column : requiredColumns)
+			this.requiredColumns.add(column.trim().toUpperCase(Locale.ROOT));
+	}
+
+	public <T> List<T> getListFromCsv(Reader reader, Class<T> csvBindedClass) throws IPLAnalyserException {
+		return getLoadResultFromCsv(reader, csvBindedClass).getRecords();
+	}
+
+	public <T> IPLCsvLoadResult<T> getLoadResultFromCsv(Reader reader, Class<T> csvBindedClass)
+			throws IPLAnalyserException {
+		List<T> records = new ArrayList<T>();
+		List<IPLCsvError> errors = readCsv(reader, csvBindedClass, records::add);
+		return new IPLCsvLoadResult<T>(records, errors);
+	}
+
+	// hands each good row to the consumer instead of collecting them, for tables
+	// too large to hold as a list of beans
+	public <T> List<IPLCsvError> readCsv(Reader reader, Class<T> csvBindedClass, Consumer<T> rowConsumer)
+			throws IPLAnalyserException {
+		List<IPLCsvError> errors = new ArrayList<IPLCsvError>();
+		try {
+			BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader
+					: new BufferedReader(reader);
+			String header = lines.readLine();
+			if (header == null)
+				return errors;
+			List<String> headerCells = splitLine(header.replace("\uFEFF", ""));
+			Field[] columnFields = bindColumns(headerCells, csvBindedClass);
+			int[] columnKinds = new int[columnFields.length];
+			boolean[] required = new boolean[columnFields.length];
+			for (int column = 0; column < columnFields.length; column++) {
+				Field field = columnFields[column];
+				columnKinds[column] = field == null ? UNSUPPORTED : kindOf(field.getType());
+				required[column] = field != null
+						&& requiredColumns.contains(headerCells.get(column).trim().toUpperCase(Locale.ROOT));
+			}
+			Constructor<T> constructor = csvBindedClass.getDeclaredConstructor();
+			int lineNumber = 1;
+			String line;
+			List<String> cells = new ArrayList<String>();
+			while ((line = lines.readLine()) != null) {
+				lineNumber++;
+				cells.clear();
+				splitLine(line, cells);
+				if (isBlank(cells))
+					continue;
+				T record = constructor.newInstance();
+				boolean keep = true;
+				for (int column = 0; column < columnFields.length && keep; column++) {
+					Field field = columnFields[column];
+					if (field == null)
+						continue;
+					String cell = column < cells.size() ? cells.get(column) : null;
+					String reason;
+					if (cell == null)
+						reason = "missing value";
+					else if (required[column] && cell.trim().isEmpty())
+						reason = "no value";
+					else
+						reason = setField(record, field, columnKinds[column], cell);
+					if (reason != null) {
+						errors.add(new IPLCsvError(lineNumber, headerCells.get(column), reason));
+						keep = policy == IPLCsvLoadPolicy.DEFAULT_CELL && !required[column];
+					}
+				}
+				if (keep)
+					rowConsumer.accept(record);
+			}
+			return errors;
+		} catch (IOException e) {
+			throw new IPLAnalyserException("Incorrect CSV File", IPLAnalyserExceptionType.CENSUS_FILE_PROBLEM);
+		} catch (ReflectiveOperationException e) {
+			throw new IPLAnalyserException("Parsing Error", IPLAnalyserExceptionType.PARSE_ERROR);
+		}
+	}
+
+	private Field[] bindColumns(List<String> headerCells, Class<?> csvBindedClass) throws IPLAnalyserException {
+		Map<String, Field> fieldsByColumn = new HashMap<String, Field>();
+		for (Field field : csvBindedClass.getFields()) {
+			CsvBindByName binding = field.getAnnotation(CsvBindByName.class);
+			if (binding != null)
+				fieldsByColumn.put(binding.column().trim().toUpperCase(Locale.ROOT), field);
+		}
+		Field[] columnFields = new Field[headerCells.size()];
+		for (int column = 0; column < columnFields.length; column++)
+			columnFields[column] = fieldsByColumn.remove(headerCells.get(column).trim().toUpperCase(Locale.ROOT));
+		for (String unbound : fieldsByColumn.keySet())
+			if (requiredColumns.contains(unbound))
+				throw new IPLAnalyserException("Missing Required Column " + unbound,
+						IPLAnalyserExceptionType.PARSE_ERROR);
+		return columnFields;
+	}
+
+	// rows made only of delimiters, as left behind by spreadsheet exports
+	private static boolean isBlank(List<String> cells) {
+		for (String cell : cells)
+			if (!cell.trim().isEmpty())
+				return false;
+		return true;
+	}
+
+	private static List<String> splitLine(String line) {
+		List<String> cells = new ArrayList<String>();
+		splitLine(line, cells);
+		return cells;
+	}
+
+	private static void splitLine(String line, List<String> cells) {
+		StringBuilder cell = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					cell.append('"');
+					i++;
+				} else {
+					quoted = !quoted;
+				}
+			} else if (c == ',' && !quoted) {
+				cells.add(cell.toString());
+				cell.setLength(0);
+			} else {
+				cell.append(c);
+			}
+		}
+		cells.add(cell.toString());
+	}
+
+	private static int kindOf(Class<?> type) {
+		if (type == String.class)
+			return TEXT;
+		if (type == int.class)
+			return INT;
+		if (type == Integer.class)
+			return BOXED_INT;
+		if (type == double.class)
+			return DOUBLE;
+		if (type == Double.class)
+			return BOXED_DOUBLE;
+		return UNSUPPORTED;
+	}
+
+	// returns the reason the cell was rejected, or null once the field is set
+	private static String setField(Object record, Field field, int kind, String cell) throws IllegalAccessException {
+		if (kind == TEXT) {
+			int start = 0;
+			while (start < cell.length() && Character.isWhitespace(cell.charAt(start)))
+				start++;
+			field.set(record, cell.substring(start));
+			return null;
+		}
+		if (kind == UNSUPPORTED)
+			return "unsupported field type " + field.getType().getSimpleName();
+		cell = cell.trim();
+		if (cell.endsWith("*"))
+			cell = cell.substring(0, cell.length() - 1).trim();
+		if (cell.isEmpty() || cell.equals("-"))
+			return "no value";
+		if (kind == INT || kind == BOXED_INT) {
+			long value = parseLong(cell);
+			if (value == Long.MIN_VALUE || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE)
+				return "not an integer: " + cell;
+			if (kind == INT)
+				field.setInt(record, (int) value);
+			else
+				field.set(record, (int) value);
+			return null;
+		}
+		double value = parseDouble(cell);
+		if (Double.isNaN(value))
+			return "not a number: " + cell;
+		if (kind == DOUBLE)
+			field.setDouble(record, value);
+		else
+			field.set(record, value);
+		return null;
+	}
+
+	// Long.MIN_VALUE marks an invalid cell
+	private static long parseLong(String cell) {
+		if (cell.isEmpty())
+			return Long.MIN_VALUE;
+		int start = cell.charAt(0) == '-' || cell.charAt(0) == '+' ? 1 : 0;
+		if (start == cell.length())
+			return Long.MIN_VALUE;
+		while (start < cell.length() - 1 && cell.charAt(start) == '0')
+			start++;
+		if (cell.length() - start > 18)
+			return Long.MIN_VALUE;
+		long value = 0;
+		for (int i = start; i < cell.length(); i++) {
+			char c = cell.charAt(i);
+			if (c < '0' || c > '9')
+				return Long.MIN_VALUE;
+			value = value * 10 + (c - '0');
+		}
+		return cell.charAt(0) == '-' ? -value : value;
+	}
+
+	// NaN marks an invalid cell
+	private static double parseDouble(String cell) {
+		double value = parseShortDecimal(cell);
+		if (!Double.isNaN(value))
+			return value;
+		try {
+			value = Double.parseDouble(cell);
+			return Double.isInfinite(value) ? Double.NaN : value;
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	// exact for plain decimals of up to 15 digits, where both the mantissa and
+	// the power of ten are representable; anything else is left to parseDouble
+	private static double parseShortDecimal(String cell) {
+		if (cell.isEmpty())
+			return Double.NaN;
+		int start = cell.charAt(0) == '-' || cell.charAt(0) == '+' ? 1 : 0;
+		long mantissa = 0;
+		long scale = 1;
+		int digits = 0;
+		boolean fraction = false;
+		for (int i = start; i < cell.length(); i++) {
+			char c = cell.charAt(i);
+			if (c == '.' && !fraction) {
+				fraction = true;
+			} else if (c >= '0' && c <= '9') {
+				if (++digits > 15)
+					return Double.NaN;
+				mantissa = mantissa * 10 + (c - '0');
+				if (fraction)
+					scale *= 10;
+			} else {
+				return Double.NaN;
+			}
+		}
+		if (digits == 0)
+			return Double.NaN;
+		double value = (double) mantissa / scale;
+		return cell.charAt(0) == '-' ? -value : value;
+	}
+}
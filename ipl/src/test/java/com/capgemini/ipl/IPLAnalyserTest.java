@@ -1,8 +1,22 @@
 package com.capgemini.ipl;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.Test;
 
@@ -244,4 +258,502 @@ public class IPLAnalyserTest {
 			assertEquals("Marcus Stoinis", batsmenListCsv[0].player);
 		} catch (Exception e) {
 			e.printStackTrace();
-}
\ No newline at end of file
+		}
+	}
+
+	private static IPLCsvLoadResult<CSVIPLBatsmenRecords> loadBatsmenLeniently(String csv, IPLCsvLoadPolicy policy)
+			throws IPLAnalyserException {
+		return CsvBuilderFactory.createLenientBuilder(policy).getLoadResultFromCsv(new StringReader(csv),
+				CSVIPLBatsmenRecords.class);
+	}
+
+	@Test
+	public void givenDashInNumericCell_WhenSkippingRows_ShouldDropRowAndReportCell() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently(
+				"POS,PLAYER,Runs,Avg\n1,A,10,-\n2,B,20,5.5\n", IPLCsvLoadPolicy.SKIP_ROW);
+		assertEquals(1, result.getRecords().size());
+		assertEquals("B", result.getRecords().get(0).player);
+		assertEquals(1, result.getErrors().size());
+		assertEquals(2, result.getErrors().get(0).getLine());
+		assertEquals("Avg", result.getErrors().get(0).getColumn());
+		assertEquals("no value", result.getErrors().get(0).getReason());
+	}
+
+	@Test
+	public void givenDashInNumericCell_WhenDefaultingCells_ShouldKeepRowWithDefault() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently("POS,PLAYER,Runs,Avg\n1,A,10,-\n",
+				IPLCsvLoadPolicy.DEFAULT_CELL);
+		assertEquals(1, result.getRecords().size());
+		assertEquals(10, result.getRecords().get(0).runs);
+		assertNull(result.getRecords().get(0).average);
+		assertEquals(1, result.getErrors().size());
+	}
+
+	@Test
+	public void givenOnlyStarInNumericCell_ShouldReportNoValueWithoutThrowing() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently("POS,PLAYER,Runs\n1,X,*\n",
+				IPLCsvLoadPolicy.SKIP_ROW);
+		assertEquals(0, result.getRecords().size());
+		assertEquals("Runs", result.getErrors().get(0).getColumn());
+		assertEquals("no value", result.getErrors().get(0).getReason());
+	}
+
+	@Test
+	public void givenNotOutMarker_ShouldParseNumberAndKeepText() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently("POS,PLAYER,Runs,HS\n1,X,100*,100*\n",
+				IPLCsvLoadPolicy.SKIP_ROW);
+		assertEquals(100, result.getRecords().get(0).runs);
+		assertEquals("100*", result.getRecords().get(0).highestScore);
+		assertEquals(0, result.getErrors().size());
+	}
+
+	@Test
+	public void givenTrailingDelimiters_ShouldIgnoreEmptyColumnAndDelimiterOnlyRows() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently(
+				"POS,PLAYER,Runs,\n1,X,5,\n,,,\n,,,", IPLCsvLoadPolicy.SKIP_ROW);
+		assertEquals(1, result.getRecords().size());
+		assertEquals(0, result.getErrors().size());
+	}
+
+	@Test
+	public void givenShortRow_ShouldReportMissingValue() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently("POS,PLAYER,Runs\n1,X\n",
+				IPLCsvLoadPolicy.DEFAULT_CELL);
+		assertEquals(1, result.getRecords().size());
+		assertEquals("missing value", result.getErrors().get(0).getReason());
+		assertEquals("Runs", result.getErrors().get(0).getColumn());
+	}
+
+	@Test
+	public void givenStrayRowWithoutPlayer_ShouldDropItUnderEitherPolicy() throws IPLAnalyserException {
+		for (IPLCsvLoadPolicy policy : IPLCsvLoadPolicy.values()) {
+			IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently("POS,PLAYER,Runs\n1,X,5\n7\n2, ,6\n",
+					policy);
+			assertEquals(1, result.getRecords().size());
+			assertEquals("X", result.getRecords().get(0).player);
+			assertEquals(3, result.getErrors().get(0).getLine());
+			assertEquals("PLAYER", result.getErrors().get(0).getColumn());
+			assertEquals(4, result.getErrors().get(result.getErrors().size() - 1).getLine());
+		}
+	}
+
+	@Test(expected = IPLAnalyserException.class)
+	public void givenHeaderWithoutPlayerColumn_ShouldThrowParseError() throws IPLAnalyserException {
+		loadBatsmenLeniently("POS,NAME,Runs\n1,X,5\n", IPLCsvLoadPolicy.DEFAULT_CELL);
+	}
+
+	@Test
+	public void givenNumbersOutsideTheFastPath_ShouldStillParse() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently(
+				"PLAYER,Avg,SR,Runs\nA,0.30000000000000004,1e3,0000000000000000000042\nB,1.5.2,NaN,7\n",
+				IPLCsvLoadPolicy.DEFAULT_CELL);
+		CSVIPLBatsmenRecords first = result.getRecords().get(0);
+		assertEquals(0.30000000000000004, first.average, 0);
+		assertEquals(1000, first.strikeRate, 0);
+		assertEquals(42, first.runs);
+		assertEquals(2, result.getErrors().size());
+		assertEquals("not a number: 1.5.2", result.getErrors().get(0).getReason());
+		assertEquals("not a number: NaN", result.getErrors().get(1).getReason());
+	}
+
+	@Test
+	public void givenQuotedComma_ShouldKeepItInsideTheCell() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently(
+				"POS,PLAYER,Runs\n1,\"Smith, Steve\",5\n", IPLCsvLoadPolicy.SKIP_ROW);
+		assertEquals("Smith, Steve", result.getRecords().get(0).player);
+		assertEquals(5, result.getRecords().get(0).runs);
+	}
+
+	@Test
+	public void givenBadCellAfterBlankLine_ShouldReportItsFileLineAndColumn() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> result = loadBatsmenLeniently(
+				"POS,PLAYER,Runs,4s\n1,A,10,2\n\n3,C,30,x\n", IPLCsvLoadPolicy.SKIP_ROW);
+		assertEquals(4, result.getErrors().get(0).getLine());
+		assertEquals("4s", result.getErrors().get(0).getColumn());
+		assertEquals("not an integer: x", result.getErrors().get(0).getReason());
+	}
+
+	@Test
+	public void givenBowlersCsvWithDashes_WhenLoadedLeniently_ShouldApplyPolicy() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBowlersRecords> defaulted = new IPLAnalyser().loadDataLeniently(RIGHT_BOWLERS_CSV,
+				CSVIPLBowlersRecords.class, IPLCsvLoadPolicy.DEFAULT_CELL);
+		IPLCsvLoadResult<CSVIPLBowlersRecords> skipped = new IPLAnalyser().loadDataLeniently(RIGHT_BOWLERS_CSV,
+				CSVIPLBowlersRecords.class, IPLCsvLoadPolicy.SKIP_ROW);
+		assertEquals(99, defaulted.getRecords().size());
+		assertEquals(86, skipped.getRecords().size());
+		assertEquals(13, skipped.getErrors().size());
+		assertEquals(88, skipped.getErrors().get(0).getLine());
+	}
+
+	private static CSVIPLBatsmenRecords batsman(String player, int runs, int ballFaced) {
+		CSVIPLBatsmenRecords batsman = new CSVIPLBatsmenRecords();
+		batsman.player = player;
+		batsman.runs = runs;
+		batsman.ballFaced = ballFaced;
+		return batsman;
+	}
+
+	private static CSVIPLBowlersRecords bowler(String player, int wickets, double overs, int runs) {
+		CSVIPLBowlersRecords bowler = new CSVIPLBowlersRecords();
+		bowler.player = player;
+		bowler.wickets = wickets;
+		bowler.overs = overs;
+		bowler.runs = runs;
+		return bowler;
+	}
+
+	@Test
+	public void givenSeasonsAddedOutOfOrder_ShouldSumAnySeasonRange() throws IPLAnalyserException {
+		IPLSeasonHistory history = new IPLSeasonHistory();
+		history.addSeason(2016, Arrays.asList(batsman("Virat Kohli", 973, 640)),
+				Collections.<CSVIPLBowlersRecords>emptyList());
+		history.addSeason(2014, Arrays.asList(batsman("Virat Kohli", 359, 405)),
+				Collections.<CSVIPLBowlersRecords>emptyList());
+		history.addSeason(2019, Arrays.asList(batsman("virat kohli ", 464, 329)),
+				Arrays.asList(bowler("Jasprit Bumrah", 19, 61, 409)));
+		assertEquals(1796, history.getTotal("Virat Kohli", IPLSeasonStat.RUNS, 2014, 2019));
+		assertEquals(973, history.getTotal("Virat Kohli", IPLSeasonStat.RUNS, 2015, 2018));
+		assertEquals(0, history.getTotal("Virat Kohli", IPLSeasonStat.RUNS, 2015, 2015));
+		assertEquals(1796, history.getTotal("Virat Kohli", IPLSeasonStat.RUNS, 2000, 2030));
+		assertEquals(0, history.getTotal("Virat Kohli", IPLSeasonStat.RUNS, 2020, 2030));
+		assertEquals(0, history.getTotal("Virat Kohli", IPLSeasonStat.RUNS, 2019, 2014));
+		assertEquals(1332 * 100.0 / 1045, history.getStrikeRate("Virat Kohli", 2014, 2016), 1e-9);
+		assertEquals(409 * 6.0 / 366, history.getEconomy("Jasprit Bumrah", 2019, 2019), 1e-9);
+	}
+
+	@Test
+	public void givenReloadedSeason_ShouldReplacePreviousLoad() throws IPLAnalyserException {
+		IPLSeasonHistory history = new IPLSeasonHistory();
+		history.addSeason(2018, Arrays.asList(batsman("A", 100, 80), batsman("B", 50, 40)),
+				Collections.<CSVIPLBowlersRecords>emptyList());
+		history.addSeason(2018, Arrays.asList(batsman("A", 120, 90)), Collections.<CSVIPLBowlersRecords>emptyList());
+		assertEquals(120, history.getTotal("A", IPLSeasonStat.RUNS, 2018, 2018));
+		assertEquals(0, history.getTotal("B", IPLSeasonStat.RUNS, 2018, 2018));
+		assertEquals(Arrays.asList("A"), history.getRangeLeaderboard(IPLSeasonStat.RUNS, 2018, 2018, 5));
+		assertEquals(0, history.getRangeLeaderboard(IPLSeasonStat.RUNS, 2018, 2018, -1).size());
+	}
+
+	@Test
+	public void givenSeasonRange_ShouldRankRatesAboveTheMinimumDenominator() throws IPLAnalyserException {
+		IPLSeasonHistory history = new IPLSeasonHistory();
+		history.addSeason(2018, Arrays.asList(batsman("A", 300, 200), batsman("B", 6, 1), batsman("C", 160, 100)),
+				Arrays.asList(bowler("X", 10, 40, 300), bowler("Y", 0, 2, 10)));
+		history.addSeason(2019, Arrays.asList(batsman("A", 100, 50), batsman("D", 0, 0)),
+				Arrays.asList(bowler("X", 5, 20, 140)));
+		assertEquals(Arrays.asList("B", "A", "C"),
+				history.getRangeRateLeaderboard(IPLSeasonRate.STRIKE_RATE, 2018, 2019, 0, 5));
+		assertEquals(Arrays.asList("A", "C"),
+				history.getRangeRateLeaderboard(IPLSeasonRate.STRIKE_RATE, 2018, 2019, 100, 5));
+		assertEquals(Arrays.asList("C", "A"),
+				history.getRangeRateLeaderboard(IPLSeasonRate.STRIKE_RATE, 2018, 2018, 100, 5));
+		assertEquals(Arrays.asList("X"),
+				history.getRangeRateLeaderboard(IPLSeasonRate.BOWLING_AVERAGE, 2018, 2019, 0, 5));
+		assertEquals(Arrays.asList("Y", "X"), history.getRangeRateLeaderboard(IPLSeasonRate.ECONOMY, 2018, 2018, 0, 5));
+		assertEquals(400 * 100.0 / 250, history.getRate("A", IPLSeasonRate.STRIKE_RATE, 2018, 2019), 1e-9);
+	}
+
+	@Test
+	public void givenShippedFactsheets_WhenLoadedAsSeason_ShouldAnswerRangeQueries() throws IPLAnalyserException {
+		IPLAnalyser iplAnalyser = new IPLAnalyser();
+		IPLDatasetLoadResult result = iplAnalyser.loadSeasonData(2019, RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		assertEquals(150, result.getPlayerCount());
+		assertEquals(88, result.getBowlersErrors().get(0).getLine());
+		IPLSeasonHistory history = iplAnalyser.getSeasonHistory();
+		assertEquals(26, history.getTotal("Imran Tahir", IPLSeasonStat.WICKETS, 2019, 2019));
+		assertEquals("Imran Tahir", history.getRangeLeaderboard(IPLSeasonStat.WICKETS, 2019, 2019, 1).get(0));
+		assertEquals("David Warner", history.getRangeLeaderboard(IPLSeasonStat.RUNS, 2019, 2019, 1).get(0));
+	}
+
+
+	private static IPLSimilarPlayerIndex runsOnlyIndex() {
+		return new IPLSimilarPlayerIndex(Arrays.asList(batsman("P0", 0, 1), batsman("P1", 10, 1), batsman("P2", 20, 1),
+				batsman("P3", 30, 1), batsman("P4", 40, 1)), Collections.<CSVIPLBowlersRecords>emptyList());
+	}
+
+	private static double[] runsOnlyWeights() {
+		double[] weights = new double[IPLPlayerFeature.values().length];
+		weights[IPLPlayerFeature.RUNS.ordinal()] = 1;
+		return weights;
+	}
+
+	@Test
+	public void givenEquidistantPlayers_ShouldReturnNearestFirstAndTiesInLoadOrder() throws IPLAnalyserException {
+		IPLSimilarPlayerIndex index = runsOnlyIndex();
+		assertEquals(Arrays.asList("P1", "P3"), index.getSimilarPlayers("P2", 2, runsOnlyWeights()));
+		assertEquals(Arrays.asList("P1", "P3", "P0", "P4"), index.getSimilarPlayers("p2", 4, runsOnlyWeights()));
+	}
+
+	@Test
+	public void givenKOutsideTableSize_ShouldReturnEmptyOrEveryOtherPlayer() throws IPLAnalyserException {
+		IPLSimilarPlayerIndex index = runsOnlyIndex();
+		assertEquals(0, index.getSimilarPlayers("P0", 0, runsOnlyWeights()).size());
+		assertEquals(0, index.getSimilarPlayers("P0", -3, runsOnlyWeights()).size());
+		assertEquals(Arrays.asList("P1", "P2", "P3", "P4"), index.getSimilarPlayers("P0", 10, runsOnlyWeights()));
+	}
+
+	@Test
+	public void givenNegativeOrNaNWeight_ShouldThrowIPLAnalyserException() {
+		IPLSimilarPlayerIndex index = runsOnlyIndex();
+		for (double badWeight : new double[] { -1, Double.NaN, Double.POSITIVE_INFINITY }) {
+			double[] weights = runsOnlyWeights();
+			weights[IPLPlayerFeature.SIXES.ordinal()] = badWeight;
+			try {
+				index.getSimilarPlayers("P0", 2, weights);
+				assertTrue("weight " + badWeight + " was accepted", false);
+			} catch (IPLAnalyserException e) {
+				assertEquals(IPLAnalyserExceptionType.SOME_OTHER_ERRORS, e.exceptionType);
+			}
+		}
+	}
+
+	@Test
+	public void givenShippedFactsheets_WhenSeasonOrStatsLoaded_ShouldLeaveSimilarPlayerIndexAlone()
+			throws IPLAnalyserException {
+		IPLAnalyser iplAnalyser = new IPLAnalyser();
+		iplAnalyser.loadSeasonData(2019, RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		try {
+			iplAnalyser.getSimilarPlayers("Andre Russell", 3, IPLPlayerFeature.defaultWeights());
+			fail("index should only be built by loadSimilarPlayerIndex");
+		} catch (IPLAnalyserException e) {
+			assertEquals(IPLAnalyserExceptionType.SOME_OTHER_ERRORS, e.exceptionType);
+		}
+		IPLDatasetLoadResult result = iplAnalyser.loadSimilarPlayerIndex(RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		assertEquals(150, result.getPlayerCount());
+		assertTrue(result.getBowlersErrors().size() > 0);
+		List<String> similarPlayers = iplAnalyser.getSimilarPlayers("Andre Russell", 3,
+				IPLPlayerFeature.defaultWeights());
+		assertEquals(3, similarPlayers.size());
+		assertEquals(false, similarPlayers.contains("Andre Russell"));
+		iplAnalyser.loadSeasonData(2018, RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		assertEquals(similarPlayers, iplAnalyser.getSimilarPlayers("Andre Russell", 3,
+				IPLPlayerFeature.defaultWeights()));
+	}
+
+	@Test
+	public void givenPureBowler_WhenComparedWithBatsman_ShouldNotLookSimilarThroughMissingStats()
+			throws IPLAnalyserException {
+		IPLSimilarPlayerIndex index = new IPLSimilarPlayerIndex(
+				Arrays.asList(batsman("T", 0, 10), batsman("L", 5, 10), batsman("M", 100, 10)),
+				Arrays.asList(bowler("Z", 3, 10, 80)));
+		assertEquals(Arrays.asList("L", "M", "Z"), index.getSimilarPlayers("T", 3));
+		assertEquals(Arrays.asList("T", "L", "M"), index.getSimilarPlayers("Z", 3));
+	}
+
+	private static HttpURLConnection get(IPLHttpServer server, String path, String... headers) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path)
+				.openConnection();
+		for (int i = 0; i < headers.length; i += 2)
+			connection.setRequestProperty(headers[i], headers[i + 1]);
+		return connection;
+	}
+
+	private static String readBody(InputStream in) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1)
+			bytes.write(buffer, 0, read);
+		in.close();
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void givenShippedFactsheets_WhenServed_ShouldReturnRankingsAndLookups() throws Exception {
+		IPLHttpServer server = new IPLHttpServer(new IPLAnalyser());
+		server.reload(RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		server.start(0, true);
+		try {
+			HttpURLConnection runs = get(server, "/rankings/runs");
+			assertEquals(200, runs.getResponseCode());
+			CSVIPLBatsmenRecords[] batsmenListCsv = new Gson().fromJson(readBody(runs.getInputStream()),
+					CSVIPLBatsmenRecords[].class);
+			assertEquals("David Warner ", batsmenListCsv[0].player);
+
+			HttpURLConnection average = get(server, "/rankings/bowling-average");
+			CSVIPLBowlersRecords[] bowlersListCsv = new Gson().fromJson(readBody(average.getInputStream()),
+					CSVIPLBowlersRecords[].class);
+			assertEquals("Anukul Roy", bowlersListCsv[0].player);
+			assertEquals(86, bowlersListCsv.length);
+
+			HttpURLConnection lookup = get(server, "/players?name=andre%20russell");
+			assertEquals(200, lookup.getResponseCode());
+			assertTrue(readBody(lookup.getInputStream()).contains("\"wickets\":11"));
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void givenGzipClient_ShouldServeGzipVariantWithItsOwnEtag() throws Exception {
+		IPLHttpServer server = new IPLHttpServer(new IPLAnalyser());
+		server.reload(RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		server.start(0, true);
+		try {
+			HttpURLConnection plain = get(server, "/rankings/sixes");
+			String plainBody = readBody(plain.getInputStream());
+			HttpURLConnection gzip = get(server, "/rankings/sixes", "Accept-Encoding", "gzip");
+			assertEquals("gzip", gzip.getHeaderField("Content-Encoding"));
+			assertEquals(plainBody, readBody(new GZIPInputStream(gzip.getInputStream())));
+			assertEquals(plain.getHeaderField("ETag").replaceAll("\"$", "-gz\""), gzip.getHeaderField("ETag"));
+
+			HttpURLConnection mixed = get(server, "/rankings/sixes", "Accept-Encoding", "gzip", "If-None-Match",
+					plain.getHeaderField("ETag"));
+			assertEquals(200, mixed.getResponseCode());
+			readBody(mixed.getInputStream());
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void givenMatchingEtag_ShouldReturnNotModifiedUntilReload() throws Exception {
+		IPLHttpServer server = new IPLHttpServer(new IPLAnalyser());
+		server.reload(RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		server.start(0, true);
+		try {
+			HttpURLConnection first = get(server, "/players?name=Hardik%20Pandya");
+			readBody(first.getInputStream());
+			String etag = first.getHeaderField("ETag");
+			assertEquals(304, get(server, "/players?name=Hardik%20Pandya", "If-None-Match", etag).getResponseCode());
+			server.reload(RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+			HttpURLConnection afterReload = get(server, "/players?name=Hardik%20Pandya", "If-None-Match", etag);
+			assertEquals(200, afterReload.getResponseCode());
+			readBody(afterReload.getInputStream());
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void givenTwoServersOnTheSameData_ShouldNotShareEtags() throws Exception {
+		IPLHttpServer first = new IPLHttpServer(new IPLAnalyser());
+		IPLHttpServer second = new IPLHttpServer(new IPLAnalyser());
+		IPLDatasetLoadResult loaded = first.reload(RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		second.reload(RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		assertEquals(150, loaded.getPlayerCount());
+		assertEquals(88, loaded.getBowlersErrors().get(0).getLine());
+		assertEquals(1, first.getVersion());
+		first.start(0, true);
+		second.start(0, true);
+		try {
+			HttpURLConnection fromFirst = get(first, "/rankings/runs");
+			HttpURLConnection fromSecond = get(second, "/rankings/runs");
+			assertEquals(readBody(fromFirst.getInputStream()), readBody(fromSecond.getInputStream()));
+			assertTrue(!fromFirst.getHeaderField("ETag").equals(fromSecond.getHeaderField("ETag")));
+			assertEquals(200, get(second, "/rankings/runs", "If-None-Match", fromFirst.getHeaderField("ETag"))
+					.getResponseCode());
+		} finally {
+			first.stop();
+			second.stop();
+		}
+	}
+
+	@Test
+	public void givenUnknownPathOrPlayer_ShouldReturnNotFound() throws Exception {
+		IPLHttpServer server = new IPLHttpServer(new IPLAnalyser());
+		server.reload(RIGHT_BATSMEN_CSV, RIGHT_BOWLERS_CSV);
+		server.start(0, true);
+		try {
+			assertEquals(404, get(server, "/rankings/catches").getResponseCode());
+			assertEquals(404, get(server, "/players?name=Nobody").getResponseCode());
+			assertEquals(404, get(server, "/players").getResponseCode());
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void givenHeapAndOffHeapTables_ShouldAnswerQueriesIdentically() throws IPLAnalyserException {
+		IPLAnalyser iplAnalyser = new IPLAnalyser();
+		IPLTableLoadResult<CSVIPLBatsmenRecords, IPLBatsmenColumn> heapBatsmen = iplAnalyser
+				.loadBatsmenTable(RIGHT_BATSMEN_CSV, IPLCsvLoadPolicy.DEFAULT_CELL, false);
+		IPLTableLoadResult<CSVIPLBowlersRecords, IPLBowlersColumn> heapBowlers = iplAnalyser
+				.loadBowlersTable(RIGHT_BOWLERS_CSV, IPLCsvLoadPolicy.DEFAULT_CELL, false);
+		try (IPLPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn> batsmen = iplAnalyser
+				.loadBatsmenTable(RIGHT_BATSMEN_CSV, IPLCsvLoadPolicy.DEFAULT_CELL, true).getTable();
+				IPLPlayerTable<CSVIPLBowlersRecords, IPLBowlersColumn> bowlers = iplAnalyser
+						.loadBowlersTable(RIGHT_BOWLERS_CSV, IPLCsvLoadPolicy.DEFAULT_CELL, true).getTable()) {
+			for (IPLBatsmenColumn column : new IPLBatsmenColumn[] { IPLBatsmenColumn.RUNS, IPLBatsmenColumn.AVERAGE,
+					IPLBatsmenColumn.STRIKE_RATE, IPLBatsmenColumn.SIXES }) {
+				assertArrayEquals(IPLTableQueries.rank(heapBatsmen.getTable(), column, true, 100),
+						IPLTableQueries.rank(batsmen, column, true, 100));
+				assertArrayEquals(IPLTableQueries.rank(heapBatsmen.getTable(), column, false, 7),
+						IPLTableQueries.rank(batsmen, column, false, 7));
+			}
+			assertArrayEquals(
+					IPLTableQueries.filter(heapBowlers.getTable(), IPLBowlersColumn.FOUR_WKT_HAUL, value -> value > 0),
+					IPLTableQueries.filter(bowlers, IPLBowlersColumn.FOUR_WKT_HAUL, value -> value > 0));
+			List<IPLAllRounder> heapAllRounders = IPLTableQueries.joinAllRounders(heapBatsmen.getTable(),
+					heapBowlers.getTable());
+			List<IPLAllRounder> offHeapAllRounders = IPLTableQueries.joinAllRounders(batsmen, bowlers);
+			assertEquals(heapAllRounders.toString(), offHeapAllRounders.toString());
+			for (int row = 0; row < batsmen.size(); row++)
+				assertEquals(heapBatsmen.getTable().getRecord(row).toString(), batsmen.getRecord(row).toString());
+			for (int row = 0; row < bowlers.size(); row++)
+				assertEquals(heapBowlers.getTable().getRecord(row).toString(), bowlers.getRecord(row).toString());
+		}
+	}
+
+	@Test
+	public void givenMissingBattingAverage_WhenStoredOffHeap_ShouldReadBackAsNull() throws IPLAnalyserException {
+		IPLCsvLoadResult<CSVIPLBatsmenRecords> loaded = loadBatsmenLeniently(
+				"POS,PLAYER,Runs,Avg\n1,A,10,-\n2,B,20,12.5\n", IPLCsvLoadPolicy.DEFAULT_CELL);
+		try (IPLOffHeapPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn> table = new IPLOffHeapPlayerTable<>(
+				IPLBatsmenColumn.class, CSVIPLBatsmenRecords::new)) {
+			IPLHeapPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn> heapTable = new IPLHeapPlayerTable<>(
+					loaded.getRecords());
+			for (CSVIPLBatsmenRecords batsman : loaded.getRecords())
+				table.append(batsman);
+			assertNull(table.getRecord(0).average);
+			assertEquals(12.5, table.getRecord(1).average, 0);
+			for (IPLPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn> backend : Arrays.asList(heapTable, table)) {
+				assertTrue(backend.isNull(0, IPLBatsmenColumn.AVERAGE));
+				assertEquals(false, backend.isNull(1, IPLBatsmenColumn.AVERAGE));
+				assertEquals(0, backend.getValue(0, IPLBatsmenColumn.AVERAGE), 0);
+				assertNull(backend.getText(0, IPLBatsmenColumn.AVERAGE));
+				assertEquals("12.5", backend.getText(1, IPLBatsmenColumn.AVERAGE));
+			}
+		}
+	}
+
+	@Test
+	public void givenEqualKeys_WhenRanked_ShouldKeepRowOrder() {
+		IPLPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn> table = new IPLHeapPlayerTable<>(Arrays.asList(
+				batsman("P0", 5, 1), batsman("P1", 9, 1), batsman("P2", 5, 1), batsman("P3", 9, 1), batsman("P4", 5, 1)));
+		assertArrayEquals(new int[] { 1, 3, 0, 2, 4 }, IPLTableQueries.rank(table, IPLBatsmenColumn.RUNS, true, 5));
+		assertArrayEquals(new int[] { 0, 2, 4, 1 }, IPLTableQueries.rank(table, IPLBatsmenColumn.RUNS, false, 4));
+		assertEquals(0, IPLTableQueries.rank(table, IPLBatsmenColumn.RUNS, true, 0).length);
+	}
+
+	@Test
+	public void givenBowlersCsvWithDashes_WhenLoadedAsTable_ShouldReturnErrorReport() throws IPLAnalyserException {
+		IPLTableLoadResult<CSVIPLBowlersRecords, IPLBowlersColumn> result = new IPLAnalyser()
+				.loadBowlersTable(RIGHT_BOWLERS_CSV, IPLCsvLoadPolicy.SKIP_ROW, true);
+		try (IPLPlayerTable<CSVIPLBowlersRecords, IPLBowlersColumn> bowlers = result.getTable()) {
+			assertEquals(86, bowlers.size());
+			assertEquals(13, result.getErrors().size());
+			assertEquals("Avg", result.getErrors().get(0).getColumn());
+		}
+	}
+
+	@Test
+	public void givenClosedOffHeapTable_ShouldRejectReads() {
+		IPLOffHeapPlayerTable<CSVIPLBatsmenRecords, IPLBatsmenColumn> table = new IPLOffHeapPlayerTable<>(
+				IPLBatsmenColumn.class, CSVIPLBatsmenRecords::new);
+		table.append(batsman("David Warner ", 692, 481));
+		assertEquals("David Warner ", table.getRecord(0).player);
+		table.close();
+		try {
+			table.getRecord(0);
+			assertTrue("read after close was allowed", false);
+		} catch (IllegalStateException e) {
+			assertEquals("table is closed", e.getMessage());
+		}
+		try {
+			table.getValue(0, IPLBatsmenColumn.RUNS);
+			assertTrue("read after close was allowed", false);
+		} catch (IllegalStateException e) {
+			assertEquals("table is closed", e.getMessage());
+		}
+	}
+}
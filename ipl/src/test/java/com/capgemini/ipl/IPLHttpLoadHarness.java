@@ -0,0 +1,71 @@
+package com.capgemini.ipl;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Load test against a local IPLHttpServer. Run with
+// java com.capgemini.ipl.IPLHttpLoadHarness [threads] [requestsPerThread]
+// HttpURLConnection reuses keep-alive connections as long as each body is drained.
+
+public class IPLHttpLoadHarness {
+	private static final String[] PATHS = { "/rankings/batting-average", "/rankings/runs", "/rankings/economy",
+			"/rankings/wickets", "/allrounders/average", "/players?name=Andre%20Russell" };
+
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		int requestsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+		IPLHttpServer server = new IPLHttpServer(new IPLAnalyser());
+		server.reload(IPLAnalyserTest.RIGHT_BATSMEN_CSV, IPLAnalyserTest.RIGHT_BOWLERS_CSV);
+		server.start(0, true);
+		String baseUrl = "http://localhost:" + server.getPort();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			for (String path : PATHS)
+				request(baseUrl + path);
+			List<Future<long[]>> results = new ArrayList<Future<long[]>>();
+			long start = System.nanoTime();
+			for (int t = 0; t < threads; t++)
+				results.add(pool.submit(() -> {
+					long[] latencies = new long[requestsPerThread];
+					for (int i = 0; i < requestsPerThread; i++) {
+						long requestStart = System.nanoTime();
+						request(baseUrl + PATHS[i % PATHS.length]);
+						latencies[i] = System.nanoTime() - requestStart;
+					}
+					return latencies;
+				}));
+			long[] latencies = new long[threads * requestsPerThread];
+			for (int t = 0; t < threads; t++)
+				System.arraycopy(results.get(t).get(), 0, latencies, t * requestsPerThread, requestsPerThread);
+			long elapsed = System.nanoTime() - start;
+			Arrays.sort(latencies);
+			System.out.printf("%d requests in %.1f ms, %.0f req/s, p50 %.1f us, p99 %.1f us%n", latencies.length,
+					elapsed / 1e6, latencies.length / (elapsed / 1e9), latencies[latencies.length / 2] / 1e3,
+					latencies[(int) (latencies.length * 0.99)] / 1e3);
+		} finally {
+			pool.shutdownNow();
+			server.stop();
+		}
+	}
+
+	private static void request(String url) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestProperty("Accept-Encoding", "gzip");
+		int status = connection.getResponseCode();
+		if (status != 200)
+			throw new IllegalStateException(url + " returned " + status);
+		try (InputStream in = connection.getInputStream()) {
+			byte[] buffer = new byte[8192];
+			while (in.read(buffer) != -1)
+				;
+		}
+	}
+}